@@ -0,0 +1,32 @@
+package com.tradinginfo.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class IngestConfig {
+
+    /**
+     * Workers for the CPU-bound part of lesson ingest (parsing, rendering,
+     * compression, hashing). An upload keeps at most twice this many lessons
+     * in flight; the bounded queue only matters when several uploads run at
+     * once, and a full queue then runs the task on the submitting thread.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService lessonRenderExecutor(@Value("${app.upload.render-threads:0}") int configuredThreads,
+                                                @Value("${app.upload.render-queue-capacity:64}") int queueCapacity) {
+        int threads = configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> Thread.ofPlatform().daemon().name("lesson-render-" + threadNumber.incrementAndGet()).unstarted(runnable),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
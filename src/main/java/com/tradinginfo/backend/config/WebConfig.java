@@ -1,14 +1,35 @@
 package com.tradinginfo.backend.config;
 
+import com.tradinginfo.backend.service.image.ImageIndexService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.regex.Pattern;
 
 @Configuration
+@RequiredArgsConstructor
+@Slf4j
 public class WebConfig implements WebMvcConfigurer {
 
+    // VersionResourceResolver's content strategy inserts "-<md5>" before the extension
+    private static final Pattern CONTENT_VERSIONED = Pattern.compile(".*-[0-9a-f]{32}\\.[^/]+$");
+
+    private final ImageIndexService imageIndexService;
+
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
@@ -25,6 +46,31 @@ public class WebConfig implements WebMvcConfigurer {
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+                .addResourceLocations("file:uploads/")
+                .setEtagGenerator(resource -> {
+                    try {
+                        return imageIndexService.contentHash(resource.getFile().toPath());
+                    } catch (IOException e) {
+                        log.debug("No content hash for {}", resource, e);
+                        return null;
+                    }
+                })
+                .resourceChain(true)
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                // Content-versioned URLs never change meaning; plain ones must be revalidated
+                CacheControl cacheControl = CONTENT_VERSIONED.matcher(request.getRequestURI()).matches()
+                        ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                        : CacheControl.noCache();
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+                return true;
+            }
+        }).addPathPatterns("/uploads/**");
     }
-}
\ No newline at end of file
+}
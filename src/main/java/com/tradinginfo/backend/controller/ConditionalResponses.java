@@ -0,0 +1,63 @@
+package com.tradinginfo.backend.controller;
+
+import com.tradinginfo.backend.util.ContentEncoding;
+import com.tradinginfo.backend.util.PrecompressedBody;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Helpers for answering GETs from precomputed bodies with validators, so that
+ * repeat requests carrying If-None-Match get an empty 304.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static ResponseEntity<byte[]> precompressed(PrecompressedBody body, MediaType contentType,
+                                                String acceptEncoding, WebRequest request) {
+        ContentEncoding encoding = body.negotiate(acceptEncoding);
+        String etag = quote(body.etag(encoding));
+
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(contentType);
+        if (encoding != ContentEncoding.IDENTITY) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, encoding.headerValue());
+        }
+        return builder.body(body.body(encoding));
+    }
+
+    static <B extends ResponseEntity.HeadersBuilder<B>> B withValidators(B builder, String etag, LocalDateTime lastModified) {
+        builder.eTag(quote(etag)).cacheControl(CacheControl.noCache());
+        if (lastModified != null) {
+            builder.lastModified(epochMillis(lastModified));
+        }
+        return builder;
+    }
+
+    static long epochMillis(LocalDateTime timestamp) {
+        return timestamp == null ? -1 : timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static String quote(String etag) {
+        return etag.startsWith("\"") ? etag : "\"" + etag + "\"";
+    }
+}
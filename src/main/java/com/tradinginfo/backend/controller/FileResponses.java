@@ -0,0 +1,94 @@
+package com.tradinginfo.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves files from disk. When the connector supports it (Tomcat NIO/NIO2),
+ * full and single-range responses are handed to the container's sendfile
+ * path so bytes go from the page cache to the socket without passing through
+ * the JVM heap. Otherwise the file is returned as a Resource and Spring MVC
+ * takes care of Range handling.
+ */
+final class FileResponses {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
+    private FileResponses() {
+    }
+
+    static ResponseEntity<Resource> serve(Path file, HttpHeaders headers, String etag, CacheControl cacheControl,
+                                          String rangeHeader, String ifRange, HttpServletRequest request) throws IOException {
+        long length = Files.size(file);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .headers(headers)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // A stale If-Range validator means the client's partial copy is outdated: send the whole file
+        boolean rangeApplies = rangeHeader != null && (ifRange == null || ifRange.equals(etag));
+        if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            return ok.body(new FileSystemResource(file));
+        }
+
+        if (!rangeApplies) {
+            sendfile(request, file, 0, length);
+            return ok.contentLength(length).build();
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+        if (ranges.size() != 1) {
+            // Multipart byteranges are rare for images; let Spring MVC assemble them
+            return ok.body(new FileSystemResource(file));
+        }
+
+        HttpRange range = ranges.get(0);
+        if (length == 0 || range.getRangeStart(length) >= length) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+        long start = range.getRangeStart(length);
+        long end = range.getRangeEnd(length);
+        sendfile(request, file, start, end + 1);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length)
+                .contentLength(end - start + 1)
+                .build();
+    }
+
+    private static void sendfile(HttpServletRequest request, Path file, long start, long end) {
+        request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end);
+    }
+}
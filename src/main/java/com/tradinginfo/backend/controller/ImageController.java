@@ -1,25 +1,33 @@
 package com.tradinginfo.backend.controller;
 
+import com.tradinginfo.backend.service.image.ImageDerivativeService;
+import com.tradinginfo.backend.service.image.ImageIndexService;
+import com.tradinginfo.backend.service.image.ImageStoreService;
+import com.tradinginfo.backend.service.image.MissingImageCacheService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/image")
@@ -28,31 +36,60 @@ import java.util.Optional;
 @CrossOrigin
 public class ImageController {
 
-    @Value("${upload.path:uploads/}")
-    private String uploadPath;
+    private final ImageIndexService imageIndexService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ImageStoreService imageStoreService;
+    private final MissingImageCacheService missingImageCacheService;
 
     @GetMapping("/{filename}")
-    public ResponseEntity<Resource> getImage(@PathVariable String filename) {
+    public ResponseEntity<Resource> getImage(
+            @PathVariable String filename,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestParam(value = "w", required = false) Integer width,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletRequest servletRequest,
+            WebRequest request) {
         try {
             // URL decode the filename (frontend sends URL encoded filenames)
             String decodedFilename = URLDecoder.decode(filename, StandardCharsets.UTF_8);
-            log.info("Serving image: {}", decodedFilename);
+            log.debug("Serving image: {}", decodedFilename);
+
+            if (missingImageCacheService.isMissing(decodedFilename)) {
+                return ResponseEntity.notFound().build();
+            }
 
             Path imagePath = findImagePath(decodedFilename)
                     .orElse(null);
 
             if (imagePath == null || !imagePath.toFile().exists()) {
+                // Later requests for the same name answer 404 without searching until an upload provides it
+                missingImageCacheService.markMissing(decodedFilename);
                 log.warn("Image not found: {}", decodedFilename);
                 return ResponseEntity.notFound().build();
             }
 
-            FileSystemResource resource = new FileSystemResource(imagePath.toFile());
-            String contentType = determineContentType(decodedFilename);
+            if (width != null && width > 0) {
+                // Nearest downscaled variant at least as wide as requested, or the original
+                imagePath = imageDerivativeService.nearestVariant(imagePath, width);
+            }
+
+            String hash = imageIndexService.contentHash(imagePath);
+            String etag = "\"" + hash + "\"";
+            // Only a URL carrying the current content hash may be cached forever
+            CacheControl cacheControl = hash.equals(version) ? FileResponses.IMMUTABLE : CacheControl.noCache();
+
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .build();
+            }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + decodedFilename + "\"")
-                    .body(resource);
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType(determineContentType(decodedFilename)));
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + decodedFilename + "\"");
+            return FileResponses.serve(imagePath, headers, etag, cacheControl, range, ifRange, servletRequest);
 
         } catch (Exception e) {
             log.error("Error serving image: {}", filename, e);
@@ -60,48 +97,69 @@ public class ImageController {
         }
     }
 
-    private Optional<Path> findImagePath(String filename) {
-        // Try multiple possible locations for the image
-        java.util.List<String> possiblePaths = Arrays.asList(
-                // Direct path in upload directory
-                uploadPath + "/" + filename,
-                // In Beginner lessons folder
-                uploadPath + "/Beginner lessons/" + filename,
-                // In any folder (search all subdirectories)
-                findInSubdirectories(filename),
-                // Fallback locations
-                "images/" + filename,
-                "lessons/images/" + filename,
-                "static/images/" + filename,
-                filename
-        );
-
-        return possiblePaths.stream()
-                .filter(path -> path != null && !path.isEmpty())
-                .map(Paths::get)
-                .filter(path -> path.toFile().exists())
-                .findFirst();
-    }
-
-    private String findInSubdirectories(String filename) {
+    @GetMapping("/objects/{objectName}")
+    public ResponseEntity<Resource> getImageObject(
+            @PathVariable String objectName,
+            @RequestParam(value = "w", required = false) Integer width,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletRequest servletRequest,
+            WebRequest request) {
         try {
-            Path uploadDir = Paths.get(uploadPath);
-            if (!uploadDir.toFile().exists()) {
-                return null;
+            // Object names are content hashes, so a direct lookup with no search and no revalidation needed
+            Path imagePath = imageStoreService.findObject(objectName).orElse(null);
+            if (imagePath == null) {
+                return ResponseEntity.notFound().build();
             }
 
-            // Search in all subdirectories of upload path
-            return java.nio.file.Files.walk(uploadDir)
-                    .filter(path -> path.getFileName().toString().equals(filename))
-                    .map(Path::toString)
-                    .findFirst()
-                    .orElse(null);
+            String etag = "\"" + objectName.substring(0, objectName.lastIndexOf('.')) + "\"";
+            if (width != null && width > 0) {
+                Path variant = imageDerivativeService.nearestVariant(imagePath, width);
+                if (!variant.equals(imagePath)) {
+                    imagePath = variant;
+                    etag = "\"" + imageIndexService.contentHash(variant) + "\"";
+                }
+            }
+
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(FileResponses.IMMUTABLE)
+                        .build();
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType(determineContentType(objectName)));
+            return FileResponses.serve(imagePath, headers, etag, FileResponses.IMMUTABLE, range, ifRange, servletRequest);
+
         } catch (Exception e) {
-            log.warn("Error searching for image in subdirectories: {}", filename, e);
-            return null;
+            log.error("Error serving image object: {}", objectName, e);
+            return ResponseEntity.internalServerError().build();
         }
     }
 
+    private Optional<Path> findImagePath(String filename) {
+        Optional<Path> stored = imageStoreService.findByName(filename);
+        if (stored.isPresent()) {
+            return stored;
+        }
+
+        Optional<Path> indexed = imageIndexService.find(filename);
+        if (indexed.isPresent()) {
+            return indexed;
+        }
+
+        // Legacy locations outside the upload directory are not indexed
+        return Stream.of(
+                        "images/" + filename,
+                        "lessons/images/" + filename,
+                        "static/images/" + filename,
+                        filename)
+                .map(Paths::get)
+                .filter(path -> path.toFile().exists())
+                .findFirst();
+    }
+
     private String determineContentType(String filename) {
         int lastDotIndex = filename.lastIndexOf('.');
         if (lastDotIndex == -1) {
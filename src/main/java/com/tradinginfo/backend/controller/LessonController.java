@@ -1,14 +1,27 @@
 package com.tradinginfo.backend.controller;
 
-import com.tradinginfo.backend.dto.FolderDTO;
 import com.tradinginfo.backend.dto.LessonDTO;
-import com.tradinginfo.backend.dto.LessonStructureDTO;
-import com.tradinginfo.backend.service.lesson.LessonFolderService;
-import com.tradinginfo.backend.service.lesson.LessonStructureService;
+import com.tradinginfo.backend.dto.LessonField;
+import com.tradinginfo.backend.dto.LessonNavigationDTO;
+import com.tradinginfo.backend.dto.LessonSectionsDTO;
+import com.tradinginfo.backend.dto.SearchPageDTO;
+import com.tradinginfo.backend.dto.SuggestionDTO;
+import com.tradinginfo.backend.entity.LessonRendition;
+import com.tradinginfo.backend.repository.LessonSummary;
 import com.tradinginfo.backend.service.lesson.LessonContentService;
+import com.tradinginfo.backend.service.lesson.LessonGraphService;
+import com.tradinginfo.backend.service.lesson.LessonLinkResolver;
+import com.tradinginfo.backend.service.lesson.LessonNavigationCacheService;
 import com.tradinginfo.backend.service.lesson.LessonSearchService;
+import com.tradinginfo.backend.service.lesson.LessonSectionService;
+import com.tradinginfo.backend.service.search.LessonSuggestService;
+import com.tradinginfo.backend.util.ContentEncoding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,9 +32,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/lessons")
@@ -30,34 +51,218 @@ import java.util.Map;
 @CrossOrigin
 public class LessonController {
 
-    private final LessonFolderService lessonFolderService;
-    private final LessonStructureService lessonStructureService;
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final LessonContentService lessonContentService;
     private final LessonSearchService lessonSearchService;
+    private final LessonNavigationCacheService lessonNavigationCacheService;
+    private final LessonSuggestService lessonSuggestService;
+    private final LessonLinkResolver lessonLinkResolver;
+    private final LessonGraphService lessonGraphService;
+    private final LessonSectionService lessonSectionService;
 
     @GetMapping("/folders")
-    public ResponseEntity<Map<String, List<FolderDTO>>> getLessonFolders() {
-        log.info("Retrieving available lesson folders");
-        List<FolderDTO> folders = lessonFolderService.getLessonFolders();
-        log.info("Found {} lesson folders", folders.size());
-        return ResponseEntity.ok(Map.of("folders", folders));
+    public ResponseEntity<byte[]> getLessonFolders(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        log.debug("Retrieving available lesson folders");
+        return ConditionalResponses.precompressed(lessonNavigationCacheService.getFoldersResponse(),
+                MediaType.APPLICATION_JSON, acceptEncoding, request);
     }
 
     @GetMapping("/structure")
-    public ResponseEntity<Map<String, List<LessonStructureDTO>>> getLessonStructure() {
-        log.info("Building lesson structure tree");
-        List<LessonStructureDTO> structure = lessonStructureService.getLessonStructure();
-        log.info("Lesson structure built with {} folders", structure.size());
-        return ResponseEntity.ok(Map.of("structure", structure));
+    public ResponseEntity<byte[]> getLessonStructure(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        log.debug("Retrieving lesson structure tree");
+        return ConditionalResponses.precompressed(lessonNavigationCacheService.getStructureResponse(),
+                MediaType.APPLICATION_JSON, acceptEncoding, request);
     }
 
     @GetMapping("/content/{*path}")
     public ResponseEntity<LessonDTO> getLessonContent(
             @PathVariable String path,
-            @RequestHeader(value = "X-Telegram-User-Id", required = false) Long telegramId) {
+            @RequestHeader(value = "X-Telegram-User-Id", required = false) Long telegramId,
+            WebRequest request) {
         log.info("Getting lesson content for path: {}", path);
+
+        // Validators come from the in-memory catalog and follow the rendered HTML, so a 304 never builds or loads the body
+        Optional<LessonSummary> summary = lessonContentService.findLessonSummary(path)
+                .filter(lesson -> lesson.contentHash() != null && !lesson.contentHash().isEmpty());
+        if (summary.isPresent()) {
+            LessonSummary lesson = summary.get();
+            String etag = ConditionalResponses.quote(lesson.contentHash());
+            if (request.checkNotModified(etag, ConditionalResponses.epochMillis(lesson.updatedAt()))) {
+                lessonContentService.recordLessonAccess(path, telegramId);
+                return ConditionalResponses.withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lesson.updatedAt())
+                        .build();
+            }
+        }
+
         LessonDTO lesson = lessonContentService.getLessonContent(path, telegramId);
-        return ResponseEntity.ok(lesson);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        summary.ifPresent(lessonSummary ->
+                ConditionalResponses.withValidators(response, lessonSummary.contentHash(), lessonSummary.updatedAt()));
+        addPrefetchLinks(response, path, request);
+        return response.body(lesson);
+    }
+
+    @GetMapping(value = "/content/{*path}", params = {"fields", "!format"})
+    public ResponseEntity<Map<String, Object>> getLessonFields(
+            @PathVariable String path,
+            @RequestParam("fields") String fields,
+            @RequestHeader(value = "X-Telegram-User-Id", required = false) Long telegramId,
+            WebRequest request) {
+        Set<LessonField> selected;
+        try {
+            selected = LessonField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        log.info("Getting lesson fields {} for path: {}", selected, path);
+
+        Optional<LessonSummary> summary = lessonContentService.findLessonSummary(path)
+                .filter(lesson -> lesson.contentHash() != null && !lesson.contentHash().isEmpty());
+        if (summary.isPresent()) {
+            LessonSummary lesson = summary.get();
+            String etag = fieldsEtag(lesson.contentHash(), selected);
+            if (request.checkNotModified(ConditionalResponses.quote(etag), ConditionalResponses.epochMillis(lesson.updatedAt()))) {
+                lessonContentService.recordLessonAccess(path, telegramId);
+                return ConditionalResponses.withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lesson.updatedAt())
+                        .build();
+            }
+        }
+
+        Map<String, Object> lesson = lessonContentService.getLessonFields(path, selected, telegramId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        summary.ifPresent(lessonSummary -> ConditionalResponses.withValidators(response,
+                fieldsEtag(lessonSummary.contentHash(), selected), lessonSummary.updatedAt()));
+        addPrefetchLinks(response, path, request);
+        return response.body(lesson);
+    }
+
+    @PostMapping("/content/batch")
+    public ResponseEntity<Map<String, Object>> getLessonsBatch(
+            @RequestBody Map<String, List<String>> request,
+            @RequestParam(value = "fields", required = false) String fields) {
+        List<String> paths = request.getOrDefault("paths", List.of());
+        if (paths.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + MAX_BATCH_SIZE + " paths per batch"));
+        }
+        Set<LessonField> selected;
+        try {
+            selected = LessonField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        log.debug("Getting {} lessons with fields {}", paths.size(), selected);
+
+        List<Map<String, Object>> lessons = lessonContentService.getLessonFields(paths, selected);
+        Set<Object> foundPaths = lessons.stream()
+                .map(lesson -> lesson.get(LessonField.PATH.fieldName()))
+                .collect(Collectors.toSet());
+        List<String> missing = paths.stream()
+                .filter(path -> !foundPaths.contains(path.startsWith("/") ? path.substring(1) : path))
+                .toList();
+        return ResponseEntity.ok(Map.of("lessons", lessons, "missing", missing));
+    }
+
+    @GetMapping(value = "/content/{*path}", params = "format")
+    public ResponseEntity<byte[]> getLessonRendition(
+            @PathVariable String path,
+            @RequestParam("format") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = "X-Telegram-User-Id", required = false) Long telegramId,
+            WebRequest request) {
+        LessonRendition.Format renditionFormat;
+        try {
+            renditionFormat = LessonRendition.Format.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .body(e.getMessage().getBytes(StandardCharsets.UTF_8));
+        }
+        log.info("Getting {} rendition for path: {}", renditionFormat, path);
+        ContentEncoding negotiated = ContentEncoding.negotiate(acceptEncoding, LessonRendition.STORED_ENCODINGS);
+
+        Optional<LessonSummary> summary = lessonContentService.findLessonSummary(path)
+                .filter(lesson -> lesson.contentHash() != null && !lesson.contentHash().isEmpty());
+        if (summary.isPresent()) {
+            LessonSummary lesson = summary.get();
+            String etag = renditionEtag(lesson.contentHash(), renditionFormat, negotiated);
+            if (request.checkNotModified(etag, ConditionalResponses.epochMillis(lesson.updatedAt()))) {
+                lessonContentService.recordLessonAccess(path, telegramId);
+                return ConditionalResponses.withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lesson.updatedAt())
+                        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+        }
+
+        LessonContentService.Rendition rendition =
+                lessonContentService.getLessonRendition(path, renditionFormat, negotiated, telegramId);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(renditionFormat.mediaType()), StandardCharsets.UTF_8))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (rendition.encoding() != ContentEncoding.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, rendition.encoding().headerValue());
+        }
+        summary.ifPresent(lesson -> ConditionalResponses.withValidators(response,
+                renditionEtag(lesson.contentHash(), renditionFormat, rendition.encoding()), lesson.updatedAt()));
+        addPrefetchLinks(response, path, request);
+        return response.body(rendition.body());
+    }
+
+    @GetMapping("/sections/{*path}")
+    public ResponseEntity<LessonSectionsDTO> getLessonSections(
+            @PathVariable String path,
+            @RequestParam(value = "index", required = false) Integer index,
+            WebRequest request) {
+        log.debug("Getting lesson sections for path: {} (index {})", path, index);
+
+        Optional<LessonSummary> summary = lessonContentService.findLessonSummary(path)
+                .filter(lesson -> lesson.contentHash() != null && !lesson.contentHash().isEmpty());
+        String etag = summary.map(lesson -> lesson.contentHash() + (index == null ? "-toc" : "-s" + index)).orElse(null);
+        if (etag != null && request.checkNotModified(ConditionalResponses.quote(etag))) {
+            return ConditionalResponses.withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, null).build();
+        }
+
+        LessonSectionsDTO sections = index == null
+                ? lessonSectionService.getTableOfContents(path)
+                : lessonSectionService.getSection(path, index);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            ConditionalResponses.withValidators(response, etag, null);
+        }
+        return response.body(sections);
+    }
+
+    @GetMapping("/prefetch/{*path}")
+    public ResponseEntity<Map<String, Object>> getPrefetchManifest(@PathVariable String path, WebRequest request) {
+        return lessonGraphService.getPrefetch(path)
+                .map(prefetch -> {
+                    Map<String, Object> manifest = new LinkedHashMap<>();
+                    manifest.put("path", prefetch.path());
+                    manifest.put("next", prefetch.next());
+                    List<String> resources = new ArrayList<>();
+                    if (prefetch.next() != null) {
+                        resources.add(PrefetchLinks.lessonUrl(request.getContextPath(), prefetch.next().path()));
+                        resources.addAll(PrefetchLinks.imageUrls(request.getContextPath(), prefetch.nextImages()));
+                    }
+                    manifest.put("resources", resources);
+                    return ResponseEntity.ok()
+                            .cacheControl(CacheControl.noCache())
+                            .body(manifest);
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/navigation/{*path}")
+    public ResponseEntity<LessonNavigationDTO> getLessonNavigation(@PathVariable String path) {
+        log.debug("Getting lesson navigation for path: {}", path);
+        return lessonGraphService.getNavigation(path)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping("/resolve")
@@ -67,11 +272,51 @@ public class LessonController {
         return ResponseEntity.ok(Map.of("path", resolvedPath));
     }
 
+    @PostMapping("/resolve/batch")
+    public ResponseEntity<Map<String, Object>> resolveLessonLinks(@RequestBody Map<String, List<String>> request) {
+        List<String> names = request.getOrDefault("names", List.of());
+        log.debug("Resolving {} internal links", names.size());
+
+        Map<String, String> resolved = lessonLinkResolver.resolveAll(names);
+        List<String> unresolved = names.stream()
+                .filter(name -> !resolved.containsKey(name))
+                .distinct()
+                .toList();
+        return ResponseEntity.ok(Map.of("resolved", resolved, "unresolved", unresolved));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Map<String, List<LessonDTO>>> searchLessons(@RequestParam("q") String query) {
-        log.info("Searching lessons with query: {}", query);
-        List<LessonDTO> results = lessonSearchService.searchLessons(query);
-        return ResponseEntity.ok(Map.of("results", results));
+    public ResponseEntity<SearchPageDTO> searchLessons(
+            @RequestParam("q") String query,
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "fields", required = false) String fields) {
+        log.info("Searching lessons with query: {} (offset {}, limit {})", query, offset, limit);
+        // Snippets are the only search field that needs lesson bodies, so they are skipped unless requested
+        boolean withSnippets = fields == null || Arrays.asList(fields.split("\\s*,\\s*")).contains("snippet");
+        return ResponseEntity.ok(lessonSearchService.searchLessons(query, offset, limit, withSnippets));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, List<SuggestionDTO>>> suggestLessons(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(Map.of("suggestions", lessonSuggestService.suggest(query, limit)));
+    }
+
+    private void addPrefetchLinks(ResponseEntity.BodyBuilder response, String path, WebRequest request) {
+        lessonGraphService.getPrefetch(path)
+                .ifPresent(prefetch -> PrefetchLinks.addLinkHeaders(response, request.getContextPath(), prefetch));
+    }
+
+    private static String fieldsEtag(String contentHash, Set<LessonField> fields) {
+        int mask = fields.stream().mapToInt(field -> 1 << field.ordinal()).reduce(0, (a, b) -> a | b);
+        return contentHash + "-f" + Integer.toHexString(mask);
+    }
+
+    private static String renditionEtag(String contentHash, LessonRendition.Format format, ContentEncoding encoding) {
+        String etag = contentHash + "-" + format.name().toLowerCase();
+        return encoding == ContentEncoding.IDENTITY ? etag : etag + "-" + encoding.headerValue();
     }
 
 }
\ No newline at end of file
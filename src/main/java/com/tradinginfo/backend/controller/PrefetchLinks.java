@@ -0,0 +1,61 @@
+package com.tradinginfo.backend.controller;
+
+import com.tradinginfo.backend.dto.LessonPrefetchDTO;
+import com.tradinginfo.backend.service.image.ImageStoreService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds prefetch hints for the lesson that follows the current one: its
+ * content URL and the URLs of the images it embeds.
+ */
+final class PrefetchLinks {
+
+    private PrefetchLinks() {
+    }
+
+    static String lessonUrl(String contextPath, String lessonPath) {
+        return UriComponentsBuilder.fromPath(contextPath)
+                .path("/lessons/content/")
+                .path(lessonPath)
+                .encode()
+                .toUriString();
+    }
+
+    static List<String> imageUrls(String contextPath, List<String> images) {
+        List<String> urls = new ArrayList<>();
+        for (String image : images) {
+            if (image.contains("://")) {
+                continue;
+            }
+            if (image.contains(ImageStoreService.OBJECTS_URL_PATH)) {
+                // Already a content-addressed URL
+                urls.add(image);
+                continue;
+            }
+            // Images are served by file name, whatever folder the embed pointed into
+            String fileName = image.substring(image.lastIndexOf('/') + 1);
+            urls.add(UriComponentsBuilder.fromPath(contextPath)
+                    .path("/image/{filename}")
+                    .encode()
+                    .buildAndExpand(fileName)
+                    .toUriString());
+        }
+        return urls;
+    }
+
+    static <B extends ResponseEntity.HeadersBuilder<B>> B addLinkHeaders(B builder, String contextPath, LessonPrefetchDTO prefetch) {
+        if (prefetch.next() == null) {
+            return builder;
+        }
+        List<String> links = new ArrayList<>();
+        links.add("<" + lessonUrl(contextPath, prefetch.next().path()) + ">; rel=prefetch");
+        imageUrls(contextPath, prefetch.nextImages())
+                .forEach(url -> links.add("<" + url + ">; rel=prefetch; as=image"));
+        return builder.header(HttpHeaders.LINK, String.join(", ", links));
+    }
+}
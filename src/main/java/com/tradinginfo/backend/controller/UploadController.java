@@ -1,13 +1,25 @@
 package com.tradinginfo.backend.controller;
 
+import com.tradinginfo.backend.dto.UploadJobDTO;
+import com.tradinginfo.backend.entity.UploadJob;
+import com.tradinginfo.backend.service.lesson.LessonContentCacheService;
+import com.tradinginfo.backend.service.upload.UploadJobService;
 import com.tradinginfo.backend.service.upload.UploadService;
 import com.tradinginfo.backend.service.telegram.TelegramUserAuthService;
 // import com.tradinginfo.backend.service.infrastructure.RedisCacheService; // REMOVED
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.Map;
 // import java.util.Optional; // No longer needed
 
@@ -19,18 +31,64 @@ import java.util.Map;
 public class UploadController {
 
     private final UploadService uploadService;
+    private final UploadJobService uploadJobService;
     private final TelegramUserAuthService telegramAuthService;
+    private final LessonContentCacheService lessonContentCacheService;
     // private final Optional<RedisCacheService> redisCacheService; // REMOVED
 
     @PostMapping("/lessons")
     public ResponseEntity<Map<String, Object>> uploadLessons(
             @RequestParam("file") MultipartFile file,
             @RequestParam("targetFolder") String targetFolder,
+            @RequestParam(value = "async", defaultValue = "true") boolean async,
+            @RequestParam(value = "removeMissing", required = false) Boolean removeMissing,
             @RequestHeader("X-Telegram-User-Id") Long telegramId) {
 
         log.info("📤 Uploading lessons to folder: {}", targetFolder);
-        Map<String, Object> result = uploadService.uploadLessons(file, targetFolder, telegramId);
-        return ResponseEntity.ok(result);
+        if (!async) {
+            Map<String, Object> result = uploadService.uploadLessons(file, targetFolder, telegramId, removeMissing);
+            return ResponseEntity.ok(result);
+        }
+
+        // The archive is only saved here; ingest runs on the job queue and is followed via the job endpoints
+        UploadJobDTO job;
+        try {
+            job = uploadJobService.submit(file, targetFolder, telegramId, removeMissing);
+        } catch (IOException e) {
+            log.error("Failed to queue upload for folder: {}", targetFolder, e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to store uploaded archive"));
+        }
+        URI statusUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/upload/jobs/{id}")
+                .buildAndExpand(job.id())
+                .toUri();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", job.status() != UploadJob.Status.FAILED);
+        response.put("jobId", job.id());
+        response.put("status", job.status());
+        response.put("statusUrl", statusUri.toString());
+        response.put("eventsUrl", statusUri + "/events");
+        if (job.status() == UploadJob.Status.FAILED) {
+            response.put("error", job.error());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        return ResponseEntity.accepted().location(statusUri).body(response);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<UploadJobDTO> getUploadJob(@PathVariable String id) {
+        return uploadJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamUploadJob(@PathVariable String id) {
+        return uploadJobService.subscribe(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/lessons/{folder}")
@@ -162,8 +220,19 @@ public class UploadController {
             return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
         }
 
-        // Clear Redis cache
-        return ResponseEntity.ok(Map.of("message", "Cache disabled - no cache to clear"));
+        lessonContentCacheService.clear();
+        return ResponseEntity.ok(Map.of("message", "Lesson content cache cleared"));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics(
+            @RequestHeader("X-Telegram-User-Id") Long telegramId) {
+
+        if (!telegramAuthService.isAdmin(telegramId)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
+        }
+
+        return ResponseEntity.ok(lessonContentCacheService.getStatistics());
     }
 
     @GetMapping("/admin/check")
@@ -263,6 +332,7 @@ public class UploadController {
             return ResponseEntity.status(403).body(Map.of("error", "Admin access required"));
         }
 
-        return ResponseEntity.ok(Map.of("message", "Cache disabled - no cache to clear"));
+        lessonContentCacheService.clear();
+        return ResponseEntity.ok(Map.of("message", "Lesson content cache cleared"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.tradinginfo.backend.dto;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Selectable {@link LessonDTO} fields for sparse fieldsets. The JSON name is
+ * also the {@code Lesson} entity attribute the value is read from.
+ */
+public enum LessonField {
+    ID("id", LessonDTO::id),
+    PATH("path", LessonDTO::path),
+    TITLE("title", LessonDTO::title),
+    CONTENT("content", LessonDTO::content),
+    HTML_CONTENT("htmlContent", LessonDTO::htmlContent),
+    FRONTMATTER("frontmatter", LessonDTO::frontmatter),
+    WORD_COUNT("wordCount", LessonDTO::wordCount),
+    PARENT_FOLDER("parentFolder", LessonDTO::parentFolder),
+    LESSON_NUMBER("lessonNumber", LessonDTO::lessonNumber);
+
+    private final String fieldName;
+    private final Function<LessonDTO, Object> accessor;
+
+    LessonField(String fieldName, Function<LessonDTO, Object> accessor) {
+        this.fieldName = fieldName;
+        this.accessor = accessor;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public Object valueOf(LessonDTO lesson) {
+        return accessor.apply(lesson);
+    }
+
+    /**
+     * Parses a comma-separated {@code fields=} parameter; blank means every field.
+     * The path is always included so results can be matched to requests.
+     */
+    public static Set<LessonField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(LessonField.class);
+        }
+        Set<LessonField> selected = EnumSet.of(PATH);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                    .filter(field -> field.fieldName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown lesson field: " + trimmed)));
+        }
+        return selected;
+    }
+}
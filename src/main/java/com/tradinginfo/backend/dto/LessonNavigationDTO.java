@@ -0,0 +1,19 @@
+package com.tradinginfo.backend.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record LessonNavigationDTO(
+        String path,
+        LessonRefDTO previous,
+        LessonRefDTO next,
+        List<LessonRefDTO> outbound,
+        List<LessonRefDTO> backlinks,
+        List<String> images,
+        List<String> unresolvedLinks) implements Serializable {
+
+    public record LessonRefDTO(
+            String path,
+            String title) implements Serializable {
+    }
+}
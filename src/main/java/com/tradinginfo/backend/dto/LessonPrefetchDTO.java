@@ -0,0 +1,12 @@
+package com.tradinginfo.backend.dto;
+
+import com.tradinginfo.backend.dto.LessonNavigationDTO.LessonRefDTO;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record LessonPrefetchDTO(
+        String path,
+        LessonRefDTO next,
+        List<String> nextImages) implements Serializable {
+}
@@ -0,0 +1,28 @@
+package com.tradinginfo.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LessonSectionsDTO(
+        String path,
+        Integer sectionCount,
+        List<TocEntryDTO> toc,
+        SectionDTO section) implements Serializable {
+
+    public record TocEntryDTO(
+            Integer index,
+            String heading,
+            Integer level,
+            Integer wordCount) implements Serializable {
+    }
+
+    public record SectionDTO(
+            Integer index,
+            String heading,
+            Integer level,
+            String htmlContent) implements Serializable {
+    }
+}
@@ -0,0 +1,20 @@
+package com.tradinginfo.backend.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record SearchPageDTO(
+        List<SearchResultDTO> results,
+        long total,
+        int offset,
+        int limit,
+        boolean hasMore) implements Serializable {
+
+    public static SearchPageDTO empty(int offset, int limit) {
+        return new SearchPageDTO(List.of(), 0, offset, limit, false);
+    }
+
+    public static SearchPageDTO of(List<SearchResultDTO> results, long total, int offset, int limit) {
+        return new SearchPageDTO(results, total, offset, limit, offset + results.size() < total);
+    }
+}
@@ -0,0 +1,14 @@
+package com.tradinginfo.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SearchResultDTO(
+        String path,
+        String title,
+        String parentFolder,
+        double score,
+        String snippet) implements Serializable {
+}
@@ -0,0 +1,9 @@
+package com.tradinginfo.backend.dto;
+
+import java.io.Serializable;
+
+public record SuggestionDTO(
+        String path,
+        String title,
+        String heading) implements Serializable {
+}
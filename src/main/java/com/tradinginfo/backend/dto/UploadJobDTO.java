@@ -0,0 +1,42 @@
+package com.tradinginfo.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.tradinginfo.backend.entity.UploadJob;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UploadJobDTO(
+        String id,
+        UploadJob.Status status,
+        String phase,
+        String targetFolder,
+        String originalFilename,
+        int lessonsTotal,
+        int lessonsProcessed,
+        int errorCount,
+        Map<String, Object> result,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) implements Serializable {
+
+    public static UploadJobDTO of(UploadJob job) {
+        return new UploadJobDTO(
+                job.getId(),
+                job.getStatus(),
+                job.getPhase(),
+                job.getTargetFolder(),
+                job.getOriginalFilename(),
+                job.getLessonsTotal() == null ? 0 : job.getLessonsTotal(),
+                job.getLessonsProcessed() == null ? 0 : job.getLessonsProcessed(),
+                job.getErrorCount() == null ? 0 : job.getErrorCount(),
+                job.getResult(),
+                job.getErrorMessage(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt());
+    }
+}
@@ -0,0 +1,36 @@
+package com.tradinginfo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "image_assets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageAsset {
+
+    // Hex SHA-256 of the file contents; the stored object is named after it
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(name = "extension", nullable = false, length = 10)
+    private String extension;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,38 @@
+package com.tradinginfo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "image_mappings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_image_mappings_folder_name", columnNames = {"folder", "name"})
+}, indexes = {
+        @Index(name = "idx_image_mappings_name", columnList = "name"),
+        @Index(name = "idx_image_mappings_hash", columnList = "hash")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageMapping {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Upload folder the image was uploaded into; empty for the upload root
+    @Column(name = "folder", nullable = false, length = 500)
+    private String folder;
+
+    @Column(name = "name", nullable = false, length = 255)
+    private String name;
+
+    @Column(name = "hash", nullable = false, length = 64)
+    private String hash;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
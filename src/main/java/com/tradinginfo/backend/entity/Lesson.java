@@ -7,10 +7,13 @@ import lombok.AllArgsConstructor;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Entity
-@Table(name = "lessons")
+@Table(name = "lessons", indexes = {
+        @Index(name = "idx_lessons_parent_folder_number", columnList = "parent_folder, lesson_number")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,6 +39,18 @@ public class Lesson {
     @Column(name = "frontmatter", columnDefinition = "jsonb")
     private Map<String, Object> frontmatter;
 
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "headings", columnDefinition = "jsonb")
+    private List<String> headings;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "outbound_links", columnDefinition = "jsonb")
+    private List<String> outboundLinks;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "image_embeds", columnDefinition = "jsonb")
+    private List<String> imageEmbeds;
+
     @Column(name = "word_count")
     private Integer wordCount = 0;
 
@@ -48,6 +63,10 @@ public class Lesson {
     @Column(name = "file_hash", length = 64)
     private String fileHash;
 
+    // SHA-256 of html_content; changes whenever the rendered output does, even under the same file_hash
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
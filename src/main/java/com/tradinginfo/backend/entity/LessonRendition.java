@@ -0,0 +1,67 @@
+package com.tradinginfo.backend.entity;
+
+import com.tradinginfo.backend.util.ContentEncoding;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "lesson_renditions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_lesson_renditions_variant", columnNames = {"lesson_path", "format", "encoding"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonRendition {
+
+    // Identity bodies are served from Lesson.content/htmlContent, only compressed variants are stored
+    public static final Set<ContentEncoding> STORED_ENCODINGS = EnumSet.of(ContentEncoding.GZIP, ContentEncoding.DEFLATE);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lesson_path", nullable = false, length = 500)
+    private String lessonPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", nullable = false, length = 20)
+    private Format format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "encoding", nullable = false, length = 20)
+    private ContentEncoding encoding;
+
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum Format {
+        HTML("text/html"),
+        MARKDOWN("text/markdown");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public static Format fromParameter(String value) {
+            return Arrays.stream(values())
+                    .filter(format -> format.name().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported lesson format: " + value));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tradinginfo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Entity
+@Table(name = "lesson_sections", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_lesson_sections_index", columnNames = {"lesson_path", "section_index"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonSection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "lesson_path", nullable = false, length = 500)
+    private String lessonPath;
+
+    @Column(name = "section_index", nullable = false)
+    private Integer sectionIndex;
+
+    // Null for the untitled preamble before the first heading
+    @Column(name = "heading", length = 500)
+    private String heading;
+
+    @Column(name = "level")
+    private Integer level;
+
+    @Column(name = "html_content", columnDefinition = "TEXT", nullable = false)
+    private String htmlContent;
+
+    @Column(name = "word_count")
+    private Integer wordCount = 0;
+}
@@ -0,0 +1,85 @@
+package com.tradinginfo.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Entity
+@Table(name = "upload_jobs", indexes = {
+        @Index(name = "idx_upload_jobs_status", columnList = "status, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status = Status.QUEUED;
+
+    @Column(name = "phase", length = 50)
+    private String phase;
+
+    @Column(name = "target_folder", nullable = false, length = 500)
+    private String targetFolder;
+
+    @Column(name = "telegram_id")
+    private Long telegramId;
+
+    // Explicit removeMissing choice of the request; null means the configured default
+    @Column(name = "remove_missing")
+    private Boolean removeMissing;
+
+    @Column(name = "original_filename", length = 500)
+    private String originalFilename;
+
+    // Uploaded archive kept on disk until the job finishes, so queued jobs survive a restart
+    @Column(name = "archive_path", length = 1000)
+    private String archivePath;
+
+    @Column(name = "lessons_total")
+    private Integer lessonsTotal = 0;
+
+    @Column(name = "lessons_processed")
+    private Integer lessonsProcessed = 0;
+
+    @Column(name = "error_count")
+    private Integer errorCount = 0;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "result", columnDefinition = "jsonb")
+    private Map<String, Object> result;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+}
@@ -14,9 +14,13 @@ public interface LessonMapper {
     LessonDTO toDTO(Lesson lesson);
 
     @Mapping(target = "fileHash", ignore = true)
+    @Mapping(target = "contentHash", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "isFolder", ignore = true)
     @Mapping(target = "subscriptionRequired", ignore = true)
+    @Mapping(target = "headings", ignore = true)
+    @Mapping(target = "outboundLinks", ignore = true)
+    @Mapping(target = "imageEmbeds", ignore = true)
     Lesson toEntity(LessonDTO lessonDTO);
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.entity.ImageAsset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, String> {
+
+    @Query("SELECT a FROM ImageAsset a WHERE NOT EXISTS (SELECT 1 FROM ImageMapping m WHERE m.hash = a.hash)")
+    List<ImageAsset> findUnreferenced();
+
+    // Held by an upload until it commits, so garbage collection cannot delete an object it is mapping
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT a FROM ImageAsset a WHERE a.hash = :hash")
+    Optional<ImageAsset> findByHashForShare(@Param("hash") String hash);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ImageAsset a WHERE a.hash = :hash")
+    Optional<ImageAsset> findByHashForUpdate(@Param("hash") String hash);
+}
@@ -0,0 +1,7 @@
+package com.tradinginfo.backend.repository;
+
+/**
+ * Folder-scoped image name joined with the extension of the object it points to.
+ */
+public record ImageMappingEntry(String folder, String name, String hash, String extension) {
+}
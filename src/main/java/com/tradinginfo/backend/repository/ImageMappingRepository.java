@@ -0,0 +1,26 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.entity.ImageMapping;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageMappingRepository extends JpaRepository<ImageMapping, Long> {
+
+    Optional<ImageMapping> findByFolderAndName(String folder, String name);
+
+    boolean existsByHash(String hash);
+
+    @Query("SELECT new com.tradinginfo.backend.repository.ImageMappingEntry(m.folder, m.name, m.hash, a.extension) FROM ImageMapping m JOIN ImageAsset a ON a.hash = m.hash")
+    List<ImageMappingEntry> findAllEntries();
+
+    @Modifying
+    @Query("DELETE FROM ImageMapping m WHERE m.folder = :folder OR m.folder LIKE CONCAT(:folder, '/%')")
+    int deleteByFolder(@Param("folder") String folder);
+}
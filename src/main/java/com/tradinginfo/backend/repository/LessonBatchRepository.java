@@ -0,0 +1,18 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.entity.Lesson;
+import com.tradinginfo.backend.entity.LessonRendition;
+import com.tradinginfo.backend.entity.LessonSection;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk ingest writes as JDBC batches: one round trip per batch instead of a
+ * SELECT plus a save per lesson.
+ */
+public interface LessonBatchRepository {
+    List<LessonUpsertOutcome> upsertAll(List<Lesson> lessons);
+    void replaceRenditions(Collection<String> lessonPaths, List<LessonRendition> renditions);
+    void replaceSections(Collection<String> lessonPaths, List<LessonSection> sections);
+}
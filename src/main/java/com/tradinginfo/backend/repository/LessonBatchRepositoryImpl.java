@@ -0,0 +1,160 @@
+package com.tradinginfo.backend.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradinginfo.backend.entity.Lesson;
+import com.tradinginfo.backend.entity.LessonRendition;
+import com.tradinginfo.backend.entity.LessonSection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class LessonBatchRepositoryImpl implements LessonBatchRepository {
+
+    // Rows whose file hash and rendered-content hash are both unchanged are left alone and report 0 updated rows
+    private static final String UPSERT_SQL = """
+            INSERT INTO lessons (path, title, content, html_content, frontmatter, headings, outbound_links, image_embeds,
+                                 word_count, parent_folder, lesson_number, file_hash, content_hash, created_at,
+                                 updated_at, is_folder, subscription_required)
+            VALUES (:path, :title, :content, :htmlContent, CAST(:frontmatter AS jsonb), CAST(:headings AS jsonb),
+                    CAST(:outboundLinks AS jsonb), CAST(:imageEmbeds AS jsonb), :wordCount, :parentFolder,
+                    :lessonNumber, :fileHash, :contentHash, now(), now(), false, false)
+            ON CONFLICT (path) DO UPDATE SET
+                title = EXCLUDED.title,
+                content = EXCLUDED.content,
+                html_content = EXCLUDED.html_content,
+                frontmatter = EXCLUDED.frontmatter,
+                headings = EXCLUDED.headings,
+                outbound_links = EXCLUDED.outbound_links,
+                image_embeds = EXCLUDED.image_embeds,
+                word_count = EXCLUDED.word_count,
+                parent_folder = EXCLUDED.parent_folder,
+                lesson_number = EXCLUDED.lesson_number,
+                file_hash = EXCLUDED.file_hash,
+                content_hash = EXCLUDED.content_hash,
+                updated_at = EXCLUDED.updated_at
+            WHERE lessons.file_hash IS DISTINCT FROM EXCLUDED.file_hash
+               OR lessons.content_hash IS DISTINCT FROM EXCLUDED.content_hash
+            """;
+
+    private static final String INSERT_RENDITION_SQL = """
+            INSERT INTO lesson_renditions (lesson_path, format, encoding, data, created_at)
+            VALUES (:lessonPath, :format, :encoding, :data, now())
+            """;
+
+    private static final String INSERT_SECTION_SQL = """
+            INSERT INTO lesson_sections (lesson_path, section_index, heading, level, html_content, word_count)
+            VALUES (:lessonPath, :sectionIndex, :heading, :level, :htmlContent, :wordCount)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LessonBatchRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public List<LessonUpsertOutcome> upsertAll(List<Lesson> lessons) {
+        if (lessons.isEmpty()) {
+            return List.of();
+        }
+        // Pending JPA changes must reach the database before plain JDBC writes
+        entityManager.flush();
+
+        List<String> paths = lessons.stream().map(Lesson::getPath).toList();
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT path FROM lessons WHERE path IN (:paths)", new MapSqlParameterSource("paths", paths), String.class));
+
+        MapSqlParameterSource[] batch = lessons.stream()
+                .map(this::lessonParameters)
+                .toArray(MapSqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+
+        List<LessonUpsertOutcome> outcomes = new ArrayList<>(lessons.size());
+        for (int i = 0; i < lessons.size(); i++) {
+            if (counts[i] == 0) {
+                outcomes.add(LessonUpsertOutcome.UNCHANGED);
+            } else {
+                outcomes.add(existing.contains(paths.get(i)) ? LessonUpsertOutcome.UPDATED : LessonUpsertOutcome.INSERTED);
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public void replaceRenditions(Collection<String> lessonPaths, List<LessonRendition> renditions) {
+        if (lessonPaths.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM lesson_renditions WHERE lesson_path IN (:paths)",
+                new MapSqlParameterSource("paths", lessonPaths));
+        MapSqlParameterSource[] batch = renditions.stream()
+                .map(rendition -> new MapSqlParameterSource()
+                        .addValue("lessonPath", rendition.getLessonPath())
+                        .addValue("format", rendition.getFormat().name())
+                        .addValue("encoding", rendition.getEncoding().name())
+                        .addValue("data", rendition.getData(), Types.BINARY))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_RENDITION_SQL, batch);
+    }
+
+    @Override
+    public void replaceSections(Collection<String> lessonPaths, List<LessonSection> sections) {
+        if (lessonPaths.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM lesson_sections WHERE lesson_path IN (:paths)",
+                new MapSqlParameterSource("paths", lessonPaths));
+        MapSqlParameterSource[] batch = sections.stream()
+                .map(section -> new MapSqlParameterSource()
+                        .addValue("lessonPath", section.getLessonPath())
+                        .addValue("sectionIndex", section.getSectionIndex())
+                        .addValue("heading", section.getHeading(), Types.VARCHAR)
+                        .addValue("level", section.getLevel(), Types.INTEGER)
+                        .addValue("htmlContent", section.getHtmlContent())
+                        .addValue("wordCount", section.getWordCount(), Types.INTEGER))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SECTION_SQL, batch);
+    }
+
+    private MapSqlParameterSource lessonParameters(Lesson lesson) {
+        return new MapSqlParameterSource()
+                .addValue("path", lesson.getPath())
+                .addValue("title", lesson.getTitle())
+                .addValue("content", lesson.getContent())
+                .addValue("htmlContent", lesson.getHtmlContent())
+                .addValue("frontmatter", toJson(lesson.getFrontmatter()), Types.VARCHAR)
+                .addValue("headings", toJson(lesson.getHeadings()), Types.VARCHAR)
+                .addValue("outboundLinks", toJson(lesson.getOutboundLinks()), Types.VARCHAR)
+                .addValue("imageEmbeds", toJson(lesson.getImageEmbeds()), Types.VARCHAR)
+                .addValue("wordCount", lesson.getWordCount(), Types.INTEGER)
+                .addValue("parentFolder", lesson.getParentFolder(), Types.VARCHAR)
+                .addValue("lessonNumber", lesson.getLessonNumber(), Types.INTEGER)
+                .addValue("fileHash", lesson.getFileHash(), Types.VARCHAR)
+                .addValue("contentHash", lesson.getContentHash(), Types.VARCHAR);
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize lesson field to JSON", e);
+        }
+    }
+}
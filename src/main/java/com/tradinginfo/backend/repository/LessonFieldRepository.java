@@ -0,0 +1,15 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.dto.LessonField;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse-fieldset reads: only the selected lesson columns are fetched.
+ */
+public interface LessonFieldRepository {
+    List<Map<String, Object>> findFieldsByPathIn(Collection<String> paths, Set<LessonField> fields);
+}
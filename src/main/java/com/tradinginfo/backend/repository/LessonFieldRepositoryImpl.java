@@ -0,0 +1,47 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.dto.LessonField;
+import com.tradinginfo.backend.entity.Lesson;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class LessonFieldRepositoryImpl implements LessonFieldRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByPathIn(Collection<String> paths, Set<LessonField> fields) {
+        if (paths.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Lesson> lesson = query.from(Lesson.class);
+
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> lesson.get(field.fieldName()).alias(field.fieldName()))
+                .toList();
+        query.multiselect(selections).where(lesson.get("path").in(paths));
+
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    fields.forEach(field -> values.put(field.fieldName(), tuple.get(field.fieldName())));
+                    return values;
+                })
+                .toList();
+    }
+}
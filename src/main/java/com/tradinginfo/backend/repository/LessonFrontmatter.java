@@ -0,0 +1,13 @@
+package com.tradinginfo.backend.repository;
+
+import java.util.Map;
+
+/**
+ * Frontmatter of a lesson loaded without its content columns.
+ */
+public record LessonFrontmatter(String path, Map<String, Object> frontmatter) {
+
+    public LessonFrontmatter {
+        frontmatter = frontmatter == null ? Map.of() : frontmatter;
+    }
+}
@@ -0,0 +1,11 @@
+package com.tradinginfo.backend.repository;
+
+import java.util.List;
+
+/**
+ * Content hashes and embedded image references of a stored lesson, used to
+ * skip unchanged files on re-upload. {@code contentHash} and
+ * {@code imageEmbeds} are null for lessons ingested before they were stored.
+ */
+public record LessonHash(String path, String fileHash, String contentHash, List<String> imageEmbeds) {
+}
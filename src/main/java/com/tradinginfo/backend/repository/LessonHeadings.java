@@ -0,0 +1,13 @@
+package com.tradinginfo.backend.repository;
+
+import java.util.List;
+
+/**
+ * Headings extracted from a lesson at ingest, loaded without the lesson body.
+ */
+public record LessonHeadings(String path, List<String> headings) {
+
+    public LessonHeadings {
+        headings = headings == null ? List.of() : headings;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tradinginfo.backend.repository;
+
+import java.util.List;
+
+/**
+ * Link targets extracted from a lesson at ingest: raw wiki/markdown link
+ * targets and embedded image references.
+ */
+public record LessonLinks(String path, List<String> outboundLinks, List<String> imageEmbeds) {
+
+    public LessonLinks {
+        outboundLinks = outboundLinks == null ? List.of() : outboundLinks;
+        imageEmbeds = imageEmbeds == null ? List.of() : imageEmbeds;
+    }
+}
@@ -0,0 +1,27 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.entity.LessonRendition;
+import com.tradinginfo.backend.util.ContentEncoding;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface LessonRenditionRepository extends JpaRepository<LessonRendition, Long> {
+
+    @Query("SELECT r.data FROM LessonRendition r WHERE r.lessonPath = :path AND r.format = :format AND r.encoding = :encoding")
+    Optional<byte[]> findData(@Param("path") String path,
+                              @Param("format") LessonRendition.Format format,
+                              @Param("encoding") ContentEncoding encoding);
+
+    @Modifying
+    @Query("DELETE FROM LessonRendition r WHERE r.lessonPath = :path")
+    int deleteByLessonPath(@Param("path") String path);
+
+    @Modifying
+    @Query("DELETE FROM LessonRendition r WHERE r.lessonPath IN (SELECT l.path FROM Lesson l WHERE l.parentFolder = :folder)")
+    int deleteByParentFolder(@Param("folder") String folder);
+}
@@ -2,16 +2,51 @@ package com.tradinginfo.backend.repository;
 
 import com.tradinginfo.backend.entity.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface LessonRepository extends JpaRepository<Lesson, Long> {
+public interface LessonRepository extends JpaRepository<Lesson, Long>, LessonFieldRepository, LessonBatchRepository {
     Optional<Lesson> findByPath(String path);
     List<Lesson> findByParentFolder(String parentFolder);
+    boolean existsByPath(String path);
+
+    // Summary projections - never touch content, html_content or frontmatter
+    @Query("SELECT new com.tradinginfo.backend.repository.LessonSummary(l.id, l.path, l.title, l.parentFolder, l.lessonNumber, l.wordCount, l.contentHash, l.updatedAt, l.isFolder, l.subscriptionRequired) FROM Lesson l ORDER BY l.id")
+    List<LessonSummary> findAllSummaries();
+
+    @Query("SELECT new com.tradinginfo.backend.repository.LessonSummary(l.id, l.path, l.title, l.parentFolder, l.lessonNumber, l.wordCount, l.contentHash, l.updatedAt, l.isFolder, l.subscriptionRequired) FROM Lesson l WHERE l.parentFolder = :folder ORDER BY l.lessonNumber")
+    List<LessonSummary> findSummariesByParentFolder(@Param("folder") String folder);
+
+    @Modifying
+    @Query("DELETE FROM Lesson l WHERE l.parentFolder = :folder")
+    int deleteByParentFolder(@Param("folder") String folder);
+
+    @Modifying
+    @Query("DELETE FROM Lesson l WHERE l.path = :path")
+    int deleteByPath(@Param("path") String path);
+
+    List<Lesson> findByPathIn(Collection<String> paths);
+
+    @Query("SELECT new com.tradinginfo.backend.repository.LessonText(l.path, l.content) FROM Lesson l WHERE l.path IN :paths")
+    List<LessonText> findTextByPathIn(@Param("paths") Collection<String> paths);
+
+    @Query("SELECT new com.tradinginfo.backend.repository.LessonFrontmatter(l.path, l.frontmatter) FROM Lesson l WHERE l.frontmatter IS NOT NULL AND (l.isFolder IS NULL OR l.isFolder = false)")
+    List<LessonFrontmatter> findAllFrontmatter();
+
+    @Query("SELECT new com.tradinginfo.backend.repository.LessonHash(l.path, l.fileHash, l.contentHash, l.imageEmbeds) FROM Lesson l WHERE l.parentFolder = :folder AND (l.isFolder IS NULL OR l.isFolder = false)")
+    List<LessonHash> findHashesByParentFolder(@Param("folder") String folder);
+
+    @Query("SELECT new com.tradinginfo.backend.repository.LessonLinks(l.path, l.outboundLinks, l.imageEmbeds) FROM Lesson l WHERE l.outboundLinks IS NOT NULL OR l.imageEmbeds IS NOT NULL")
+    List<LessonLinks> findAllLinks();
+
+    @Query("SELECT new com.tradinginfo.backend.repository.LessonHeadings(l.path, l.headings) FROM Lesson l WHERE l.headings IS NOT NULL")
+    List<LessonHeadings> findAllHeadings();
 
     @Query("SELECT l FROM Lesson l WHERE LOWER(l.title) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(l.content) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Lesson> searchLessons(@Param("query") String query);
@@ -0,0 +1,27 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.entity.LessonSection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LessonSectionRepository extends JpaRepository<LessonSection, Long> {
+
+    Optional<LessonSection> findByLessonPathAndSectionIndex(String lessonPath, Integer sectionIndex);
+
+    @Query("SELECT new com.tradinginfo.backend.repository.LessonSectionSummary(s.sectionIndex, s.heading, s.level, s.wordCount) FROM LessonSection s WHERE s.lessonPath = :path ORDER BY s.sectionIndex")
+    List<LessonSectionSummary> findTableOfContents(@Param("path") String path);
+
+    @Modifying
+    @Query("DELETE FROM LessonSection s WHERE s.lessonPath = :path")
+    int deleteByLessonPath(@Param("path") String path);
+
+    @Modifying
+    @Query("DELETE FROM LessonSection s WHERE s.lessonPath IN (SELECT l.path FROM Lesson l WHERE l.parentFolder = :folder)")
+    int deleteByParentFolder(@Param("folder") String folder);
+}
@@ -0,0 +1,7 @@
+package com.tradinginfo.backend.repository;
+
+/**
+ * Table-of-contents row for a lesson section, without its HTML.
+ */
+public record LessonSectionSummary(Integer index, String heading, Integer level, Integer wordCount) {
+}
@@ -0,0 +1,27 @@
+package com.tradinginfo.backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Navigation-only view of a lesson row. Selected through a constructor
+ * expression so the TEXT content columns and the jsonb frontmatter are
+ * never read for catalog-wide listings. {@code contentHash} identifies the
+ * rendered content and backs HTTP validators and the content cache.
+ */
+public record LessonSummary(
+        Long id,
+        String path,
+        String title,
+        String parentFolder,
+        Integer lessonNumber,
+        Integer wordCount,
+        String contentHash,
+        LocalDateTime updatedAt,
+        Boolean isFolder,
+        Boolean subscriptionRequired) {
+
+    public LessonSummary {
+        isFolder = Boolean.TRUE.equals(isFolder);
+        subscriptionRequired = Boolean.TRUE.equals(subscriptionRequired);
+    }
+}
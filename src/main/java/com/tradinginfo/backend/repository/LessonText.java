@@ -0,0 +1,7 @@
+package com.tradinginfo.backend.repository;
+
+/**
+ * Markdown body of a lesson without the rendered HTML, for snippet extraction.
+ */
+public record LessonText(String path, String content) {
+}
@@ -0,0 +1,7 @@
+package com.tradinginfo.backend.repository;
+
+public enum LessonUpsertOutcome {
+    INSERTED,
+    UPDATED,
+    UNCHANGED
+}
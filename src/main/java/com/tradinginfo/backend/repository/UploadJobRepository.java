@@ -0,0 +1,14 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.entity.UploadJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UploadJobRepository extends JpaRepository<UploadJob, String> {
+
+    List<UploadJob> findByStatusInOrderByCreatedAtAsc(Collection<UploadJob.Status> statuses);
+}
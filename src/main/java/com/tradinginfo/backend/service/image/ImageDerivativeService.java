@@ -0,0 +1,16 @@
+package com.tradinginfo.backend.service.image;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImageDerivativeService {
+    void generateAsync(Path original);
+    Optional<ImageDimensions> dimensions(Path original);
+    Path nearestVariant(Path original, int width);
+    List<Integer> variantWidths(Path original);
+    void deleteVariants(Path originalOrFolder);
+
+    record ImageDimensions(int width, int height) {
+    }
+}
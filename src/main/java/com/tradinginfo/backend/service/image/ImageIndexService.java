@@ -0,0 +1,15 @@
+package com.tradinginfo.backend.service.image;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface ImageIndexService {
+    Optional<Path> find(String name);
+    void register(Path file);
+    void unregister(Path file);
+    void unregisterFolder(Path folder);
+    void rebuild();
+    boolean isImageFile(String fileName);
+    String contentHash(Path file) throws IOException;
+}
@@ -0,0 +1,20 @@
+package com.tradinginfo.backend.service.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface ImageStoreService {
+    String OBJECTS_URL_PATH = "/image/objects/";
+
+    StoredImage store(InputStream content, String folder, String name) throws IOException;
+    Optional<String> resolve(String folder, String name);
+    Optional<Path> findObject(String objectName);
+    Optional<Path> findByName(String name);
+    String objectUrl(String objectName);
+    void removeFolder(String folder);
+
+    record StoredImage(String hash, String objectName, Path path, boolean created, boolean remapped) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.tradinginfo.backend.service.image;
+
+public interface MissingImageCacheService {
+    boolean isMissing(String name);
+    void markMissing(String name);
+    void evict(String fileName);
+    void clear();
+}
@@ -0,0 +1,230 @@
+package com.tradinginfo.backend.service.image.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradinginfo.backend.service.image.ImageDerivativeService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Downscaled copies of uploaded raster images at a few fixed widths, stored
+ * under {@code <upload.path>/.derivatives/<relative image path>/<width>.<ext>}.
+ * Generation runs on a small bounded pool so uploads never wait for it; until
+ * a variant exists the original is served instead. Intrinsic dimensions are
+ * read from the image header only and cached by file size and mtime.
+ */
+@Service
+@Slf4j
+public class ImageDerivativeServiceImpl implements ImageDerivativeService {
+
+    public static final String DERIVATIVES_DIRECTORY = ".derivatives";
+
+    private static final Map<String, String> WRITABLE_FORMATS = Map.of("png", "png", "jpg", "jpeg", "jpeg", "jpeg", "bmp", "bmp");
+    private static final int QUEUE_CAPACITY = 1_000;
+
+    private final Path root;
+    private final Path derivativesRoot;
+    private final List<Integer> widths;
+    private final ThreadPoolExecutor executor;
+    private final Cache<Path, Dimensions> dimensions = Caffeine.newBuilder().maximumSize(100_000).build();
+
+    public ImageDerivativeServiceImpl(@Value("${upload.path:uploads/}") String uploadPath,
+                                      @Value("${app.images.derivative-widths:320,640,1024}") List<Integer> widths,
+                                      @Value("${app.images.derivative-threads:2}") int threads) {
+        this.root = Paths.get(uploadPath).toAbsolutePath().normalize();
+        this.derivativesRoot = root.resolve(DERIVATIVES_DIRECTORY);
+        this.widths = widths.stream().sorted().distinct().toList();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> Thread.ofPlatform().daemon().name("image-derivatives-" + threadNumber.incrementAndGet()).unstarted(runnable),
+                (runnable, pool) -> log.warn("Image derivative queue full, skipping a job; originals will be served"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void generateAsync(Path original) {
+        Path normalized = original.toAbsolutePath().normalize();
+        if (formatOf(normalized) == null || !normalized.startsWith(root)) {
+            return;
+        }
+        executor.execute(() -> generate(normalized));
+    }
+
+    @Override
+    public Optional<ImageDimensions> dimensions(Path original) {
+        Path normalized = original.toAbsolutePath().normalize();
+        try {
+            long size = Files.size(normalized);
+            long modified = Files.getLastModifiedTime(normalized).toMillis();
+            Dimensions cached = dimensions.getIfPresent(normalized);
+            if (cached != null && cached.size() == size && cached.modified() == modified) {
+                return Optional.ofNullable(cached.dimensions());
+            }
+            Dimensions read = new Dimensions(size, modified, readDimensions(normalized));
+            dimensions.put(normalized, read);
+            return Optional.ofNullable(read.dimensions());
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<Integer> variantWidths(Path original) {
+        if (formatOf(original) == null) {
+            return List.of();
+        }
+        int intrinsic = dimensions(original).map(ImageDimensions::width).orElse(0);
+        return widths.stream()
+                .filter(width -> width < intrinsic)
+                .toList();
+    }
+
+    @Override
+    public Path nearestVariant(Path original, int width) {
+        // Smallest generated variant at least as wide as requested; the original covers anything larger
+        // and stands in for variants the background pool has not written yet
+        for (int candidate : variantWidths(original)) {
+            Path variant = variantPath(original, candidate);
+            if (candidate >= width && isFresh(variant, original)) {
+                return variant;
+            }
+        }
+        return original;
+    }
+
+    @Override
+    public void deleteVariants(Path originalOrFolder) {
+        Path normalized = originalOrFolder.toAbsolutePath().normalize();
+        if (!normalized.startsWith(root) || normalized.startsWith(derivativesRoot)) {
+            return;
+        }
+        Path directory = derivativesRoot.resolve(root.relativize(normalized));
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.debug("No derivatives to delete for {}", normalized);
+        }
+        dimensions.invalidate(normalized);
+    }
+
+    private void generate(Path original) {
+        try {
+            List<Integer> missing = variantWidths(original).stream()
+                    .filter(width -> !isFresh(variantPath(original, width), original))
+                    .toList();
+            if (missing.isEmpty()) {
+                return;
+            }
+
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                return;
+            }
+            String format = formatOf(original);
+            for (int width : missing) {
+                int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+                BufferedImage scaled = scale(source, width, height, "png".equals(format));
+                Path target = variantPath(original, width);
+                Files.createDirectories(target.getParent());
+                Path temp = Files.createTempFile(target.getParent(), "variant", ".tmp");
+                ImageIO.write(scaled, format, temp.toFile());
+                // Readers never see a half-written variant
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            log.debug("Generated {} derivatives for {}", missing.size(), original);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate derivatives for {}: {}", original, e.getMessage());
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, boolean keepAlpha) {
+        BufferedImage scaled = new BufferedImage(width, height, keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static ImageDimensions readDimensions(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new ImageDimensions(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private Path variantPath(Path original, int width) {
+        Path normalized = original.toAbsolutePath().normalize();
+        String extension = extensionOf(normalized);
+        return derivativesRoot.resolve(root.relativize(normalized)).resolve(width + "." + extension);
+    }
+
+    private static boolean isFresh(Path variant, Path original) {
+        try {
+            return Files.exists(variant)
+                    && Files.getLastModifiedTime(variant).compareTo(Files.getLastModifiedTime(original)) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String extensionOf(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase();
+    }
+
+    private static String formatOf(Path file) {
+        return WRITABLE_FORMATS.get(extensionOf(file));
+    }
+
+    private record Dimensions(long size, long modified, ImageDimensions dimensions) {
+    }
+}
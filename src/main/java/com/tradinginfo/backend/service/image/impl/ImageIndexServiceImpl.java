@@ -0,0 +1,292 @@
+package com.tradinginfo.backend.service.image.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradinginfo.backend.service.image.ImageIndexService;
+import com.tradinginfo.backend.service.image.MissingImageCacheService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of every image under the upload directory, keyed by file
+ * name. A name can exist in several folders, so each name maps to the set of
+ * upload-relative paths holding it, ordered shallowest first and then
+ * alphabetically; a plain-name lookup returns the first of them and a
+ * folder-qualified lookup checks membership.
+ *
+ * The index is built at startup, kept current by the upload code, and a
+ * WatchService thread reconciles changes made to the directory by anything else.
+ * Content hashes used as image ETags are cached alongside, keyed by size and mtime.
+ */
+@Service
+@Slf4j
+public class ImageIndexServiceImpl implements ImageIndexService {
+
+    private static final List<String> IMAGE_EXTENSIONS =
+            List.of(".png", ".jpg", ".jpeg", ".gif", ".svg", ".webp", ".bmp", ".ico");
+
+    private static final int CONTENT_HASH_CACHE_SIZE = 100_000;
+
+    private static final Comparator<String> SHALLOWEST_FIRST = Comparator
+            .comparingLong((String path) -> path.chars().filter(c -> c == '/').count())
+            .thenComparing(Comparator.naturalOrder());
+
+    private final Path root;
+    private final boolean watchEnabled;
+    private final MissingImageCacheService missingImageCacheService;
+    private final Map<String, NavigableSet<String>> pathsByName = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final Cache<Path, ContentHash> contentHashes = Caffeine.newBuilder().maximumSize(CONTENT_HASH_CACHE_SIZE).build();
+
+    private WatchService watchService;
+
+    public ImageIndexServiceImpl(@Value("${upload.path:uploads/}") String uploadPath,
+                                 @Value("${app.images.watch-enabled:true}") boolean watchEnabled,
+                                 MissingImageCacheService missingImageCacheService) {
+        this.root = Paths.get(uploadPath).toAbsolutePath().normalize();
+        this.watchEnabled = watchEnabled;
+        this.missingImageCacheService = missingImageCacheService;
+    }
+
+    @PostConstruct
+    void start() {
+        rebuild();
+        if (watchEnabled) {
+            startWatcher();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.debug("Failed to close image watch service", e);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Path> find(String name) {
+        if (name == null || name.isEmpty()) {
+            return Optional.empty();
+        }
+        String relative = name.replace('\\', '/');
+        if (relative.startsWith("/")) {
+            relative = relative.substring(1);
+        }
+        NavigableSet<String> candidates = pathsByName.get(fileName(relative));
+        if (candidates == null || candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        if (relative.contains("/")) {
+            return candidates.contains(relative) ? Optional.of(root.resolve(relative)) : Optional.empty();
+        }
+        try {
+            return Optional.of(root.resolve(candidates.first()));
+        } catch (NoSuchElementException e) {
+            // Removed concurrently
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void register(Path file) {
+        Path normalized = file.toAbsolutePath().normalize();
+        if (!normalized.startsWith(root) || !isImageFile(normalized.getFileName().toString())) {
+            return;
+        }
+        String relative = relativize(normalized);
+        if (isHidden(relative)) {
+            return;
+        }
+        pathsByName.computeIfAbsent(fileName(relative), name -> new ConcurrentSkipListSet<>(SHALLOWEST_FIRST)).add(relative);
+        missingImageCacheService.evict(fileName(relative));
+    }
+
+    @Override
+    public void unregister(Path file) {
+        Path normalized = file.toAbsolutePath().normalize();
+        if (!normalized.startsWith(root)) {
+            return;
+        }
+        String relative = relativize(normalized);
+        pathsByName.computeIfPresent(fileName(relative), (name, paths) -> {
+            paths.remove(relative);
+            return paths.isEmpty() ? null : paths;
+        });
+    }
+
+    @Override
+    public void unregisterFolder(Path folder) {
+        Path normalized = folder.toAbsolutePath().normalize();
+        if (!normalized.startsWith(root)) {
+            return;
+        }
+        String prefix = normalized.equals(root) ? "" : relativize(normalized) + "/";
+        pathsByName.replaceAll((name, paths) -> {
+            paths.removeIf(path -> path.startsWith(prefix));
+            return paths;
+        });
+        pathsByName.values().removeIf(NavigableSet::isEmpty);
+    }
+
+    @Override
+    public void rebuild() {
+        pathsByName.clear();
+        if (!Files.isDirectory(root)) {
+            log.info("Image index: upload directory {} does not exist yet", root);
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(this::register);
+        } catch (IOException e) {
+            log.error("Failed to build image index from {}", root, e);
+        }
+        log.info("Image index built: {} image names under {}", pathsByName.size(), root);
+    }
+
+    @Override
+    public String contentHash(Path file) throws IOException {
+        Path normalized = file.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(normalized, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        // Hashes are reused until the file's size or modification time changes
+        ContentHash cached = contentHashes.getIfPresent(normalized);
+        if (cached != null && cached.size() == attributes.size() && cached.modified() == modified) {
+            return cached.hash();
+        }
+        ContentHash computed = new ContentHash(attributes.size(), modified, hash(normalized));
+        contentHashes.put(normalized, computed);
+        return computed.hash();
+    }
+
+    @Override
+    public boolean isImageFile(String fileName) {
+        String lowerCaseName = fileName.toLowerCase();
+        return IMAGE_EXTENSIONS.stream().anyMatch(lowerCaseName::endsWith);
+    }
+
+    private void startWatcher() {
+        try {
+            Files.createDirectories(root);
+            watchService = FileSystems.getDefault().newWatchService();
+            watchTree(root);
+        } catch (IOException e) {
+            log.warn("Image index will not watch {}: {}", root, e.getMessage());
+            return;
+        }
+        Thread.ofPlatform().name("image-index-watcher").daemon().start(this::watchLoop);
+    }
+
+    private void watchTree(Path directory) throws IOException {
+        try (Stream<Path> directories = Files.walk(directory)) {
+            for (Path dir : directories.filter(Files::isDirectory).filter(dir -> !isHidden(relativize(dir))).toList()) {
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirectories.put(key, dir);
+            }
+        }
+    }
+
+    private void watchLoop() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                    rebuild();
+                    continue;
+                }
+                reconcile(event.kind(), directory.resolve((Path) event.context()));
+            }
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+            }
+        }
+    }
+
+    private void reconcile(WatchEvent.Kind<?> kind, Path path) {
+        try {
+            if (kind == StandardWatchEventKinds.ENTRY_DELETE) {
+                unregister(path);
+                unregisterFolder(path);
+            } else if (Files.isDirectory(path)) {
+                // Files may land in a new folder before its watch key exists, so index it eagerly
+                watchTree(path);
+                try (Stream<Path> files = Files.walk(path)) {
+                    files.filter(Files::isRegularFile).forEach(this::register);
+                }
+            } else if (Files.isRegularFile(path)) {
+                register(path);
+            }
+        } catch (IOException e) {
+            log.debug("Failed to reconcile image index for {}", path, e);
+        }
+    }
+
+    private static String hash(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private String relativize(Path path) {
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private static boolean isHidden(String relativePath) {
+        // Dot-directories such as .derivatives hold generated files, not addressable images
+        return relativePath.startsWith(".") || relativePath.contains("/.");
+    }
+
+    private static String fileName(String relativePath) {
+        return relativePath.substring(relativePath.lastIndexOf('/') + 1);
+    }
+
+    private record ContentHash(long size, long modified, String hash) {
+    }
+}
@@ -0,0 +1,329 @@
+package com.tradinginfo.backend.service.image.impl;
+
+import com.tradinginfo.backend.entity.ImageAsset;
+import com.tradinginfo.backend.entity.ImageMapping;
+import com.tradinginfo.backend.repository.ImageAssetRepository;
+import com.tradinginfo.backend.repository.ImageMappingEntry;
+import com.tradinginfo.backend.repository.ImageMappingRepository;
+import com.tradinginfo.backend.service.image.ImageDerivativeService;
+import com.tradinginfo.backend.service.image.ImageStoreService;
+import com.tradinginfo.backend.service.image.MissingImageCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image storage. Every uploaded image is written once to
+ * {@code <upload.path>/.objects/<first two hash chars>/<sha-256>.<ext>}, where the
+ * extension is the one recorded when the content was first seen, so the same
+ * bytes uploaded as {@code .jpg} and {@code .jpeg} stay a single file; what a
+ * lesson calls an image is a (folder, name) mapping onto that object, so the
+ * same picture uploaded to ten folders is one file and same-named pictures in
+ * different folders no longer overwrite each other.
+ *
+ * Object URLs never change meaning and are served as immutable. Mappings are
+ * mirrored in memory, keyed by name with folders ordered shallowest first, so
+ * lookups never touch the database or the filesystem.
+ *
+ * The in-memory mirror and object deletion only follow committed changes. An
+ * upload holds a share lock on every asset it maps until it commits, and
+ * garbage collection re-checks each candidate under an update lock, so an
+ * object is never deleted while an uncommitted upload still points at it.
+ */
+@Service
+@Slf4j
+public class ImageStoreServiceImpl implements ImageStoreService {
+
+    public static final String OBJECTS_DIRECTORY = ".objects";
+
+    private static final Pattern OBJECT_NAME_PATTERN = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]{1,10}");
+
+    private static final Comparator<String> SHALLOWEST_FIRST = Comparator
+            .comparingLong((String folder) -> folder.chars().filter(c -> c == '/').count())
+            .thenComparing(Comparator.naturalOrder());
+
+    private final ImageAssetRepository imageAssetRepository;
+    private final ImageMappingRepository imageMappingRepository;
+    private final ImageDerivativeService imageDerivativeService;
+    private final MissingImageCacheService missingImageCacheService;
+    private final TransactionTemplate gcTransaction;
+    private final Path objectsRoot;
+    private final String objectsUrl;
+    private final Map<String, NavigableMap<String, String>> objectsByName = new ConcurrentHashMap<>();
+
+    public ImageStoreServiceImpl(ImageAssetRepository imageAssetRepository,
+                                 ImageMappingRepository imageMappingRepository,
+                                 ImageDerivativeService imageDerivativeService,
+                                 MissingImageCacheService missingImageCacheService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${upload.path:uploads/}") String uploadPath,
+                                 @Value("${server.servlet.context-path:}") String contextPath) {
+        this.imageAssetRepository = imageAssetRepository;
+        this.imageMappingRepository = imageMappingRepository;
+        this.imageDerivativeService = imageDerivativeService;
+        this.missingImageCacheService = missingImageCacheService;
+        this.gcTransaction = new TransactionTemplate(transactionManager);
+        this.gcTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectsRoot = Paths.get(uploadPath).toAbsolutePath().normalize().resolve(OBJECTS_DIRECTORY);
+        this.objectsUrl = contextPath + OBJECTS_URL_PATH;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadMappings() {
+        objectsByName.clear();
+        List<ImageMappingEntry> entries = imageMappingRepository.findAllEntries();
+        entries.forEach(entry -> putMapping(entry.folder(), entry.name(), entry.hash() + "." + entry.extension()));
+        log.info("Image store: {} mappings for {} image names", entries.size(), objectsByName.size());
+    }
+
+    @Override
+    @Transactional
+    public StoredImage store(InputStream content, String folder, String name) throws IOException {
+        String normalizedFolder = normalizeFolder(folder);
+        String extension = extensionOf(name);
+        Files.createDirectories(objectsRoot);
+
+        // Hash while copying so the content is read exactly once; the caller owns and closes the stream
+        Path temp = Files.createTempFile(objectsRoot, "upload", ".tmp");
+        String hash;
+        long size;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                size = new DigestInputStream(content, digest).transferTo(out);
+            }
+            hash = HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            Files.deleteIfExists(temp);
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        // Lock the asset before touching its file so a concurrent collection cannot remove it underneath us
+        Optional<ImageAsset> existing = imageAssetRepository.findByHashForShare(hash);
+        String objectName = hash + "." + existing.map(ImageAsset::getExtension).orElse(extension);
+        Path target = objectPath(objectName);
+        boolean created = false;
+        try {
+            if (Files.exists(target)) {
+                log.debug("Image {} already stored as {}", name, objectName);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                created = true;
+            }
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently by another upload with the same content
+            log.debug("Image {} stored concurrently as {}", name, objectName);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        if (existing.isEmpty()) {
+            ImageAsset asset = new ImageAsset();
+            asset.setHash(hash);
+            asset.setExtension(extension);
+            asset.setSizeBytes(size);
+            imageDerivativeService.dimensions(target).ifPresent(dimensions -> {
+                asset.setWidth(dimensions.width());
+                asset.setHeight(dimensions.height());
+            });
+            imageAssetRepository.save(asset);
+        }
+
+        ImageMapping mapping = imageMappingRepository.findByFolderAndName(normalizedFolder, name).orElse(new ImageMapping());
+        boolean remapped = !hash.equals(mapping.getHash());
+        mapping.setFolder(normalizedFolder);
+        mapping.setName(name);
+        mapping.setHash(hash);
+        mapping.setUpdatedAt(LocalDateTime.now());
+        imageMappingRepository.save(mapping);
+
+        boolean generateDerivatives = created;
+        afterCommit(() -> {
+            putMapping(normalizedFolder, name, objectName);
+            missingImageCacheService.evict(name);
+            if (generateDerivatives) {
+                imageDerivativeService.generateAsync(target);
+            }
+        });
+        return new StoredImage(hash, objectName, target, created, remapped);
+    }
+
+    @Override
+    public Optional<String> resolve(String folder, String name) {
+        NavigableMap<String, String> folders = objectsByName.get(name);
+        if (folders == null || folders.isEmpty()) {
+            return Optional.empty();
+        }
+        // The lesson's own folder wins; otherwise the shallowest folder holding that name
+        String own = folders.get(normalizeFolder(folder));
+        if (own != null) {
+            return Optional.of(own);
+        }
+        return Optional.ofNullable(folders.firstEntry()).map(Map.Entry::getValue);
+    }
+
+    @Override
+    public Optional<Path> findObject(String objectName) {
+        if (objectName == null || !OBJECT_NAME_PATTERN.matcher(objectName).matches()) {
+            return Optional.empty();
+        }
+        Path path = objectPath(objectName);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public Optional<Path> findByName(String name) {
+        if (name == null || name.isEmpty()) {
+            return Optional.empty();
+        }
+        String relative = name.replace('\\', '/');
+        if (relative.startsWith("/")) {
+            relative = relative.substring(1);
+        }
+        int slash = relative.lastIndexOf('/');
+        String folder = slash < 0 ? "" : relative.substring(0, slash);
+        return resolve(folder, relative.substring(slash + 1)).flatMap(this::findObject);
+    }
+
+    @Override
+    public String objectUrl(String objectName) {
+        return objectsUrl + objectName;
+    }
+
+    @Override
+    @Transactional
+    public void removeFolder(String folder) {
+        String normalizedFolder = normalizeFolder(folder);
+        int removed = imageMappingRepository.deleteByFolder(normalizedFolder);
+        log.info("Removed {} image mappings under {}", removed, normalizedFolder);
+
+        afterCommit(() -> {
+            objectsByName.values().forEach(folders -> folders.keySet()
+                    .removeIf(key -> key.equals(normalizedFolder) || key.startsWith(normalizedFolder + "/")));
+            objectsByName.values().removeIf(Map::isEmpty);
+            collectGarbage();
+        });
+    }
+
+    private void collectGarbage() {
+        // Objects no longer named by any folder are garbage; each one is re-checked in its own short transaction
+        List<String> candidates = gcTransaction.execute(status -> imageAssetRepository.findUnreferenced().stream()
+                .map(ImageAsset::getHash)
+                .toList());
+        int collected = 0;
+        for (String hash : candidates) {
+            try {
+                if (Boolean.TRUE.equals(gcTransaction.execute(status -> deleteIfUnreferenced(hash)))) {
+                    collected++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to collect image object {}: {}", hash, e.getMessage());
+            }
+        }
+        log.info("Collected {} unreferenced image objects", collected);
+    }
+
+    private boolean deleteIfUnreferenced(String hash) {
+        // Waits for any upload holding a share lock; once it commits its mapping becomes visible here
+        Optional<ImageAsset> asset = imageAssetRepository.findByHashForUpdate(hash);
+        if (asset.isEmpty() || imageMappingRepository.existsByHash(hash)) {
+            return false;
+        }
+        // The file goes while the row lock is still held, so an upload waiting on it re-creates both
+        Path path = objectPath(hash + "." + asset.get().getExtension());
+        deleteObjectFiles(hash);
+        imageDerivativeService.deleteVariants(path);
+        imageAssetRepository.delete(asset.get());
+        return true;
+    }
+
+    private void deleteObjectFiles(String hash) {
+        // Also sweeps copies left under another extension by stores that predate the canonical extension
+        Path shard = objectsRoot.resolve(hash.substring(0, 2));
+        if (!Files.isDirectory(shard)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(shard, hash + ".*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete image object {}: {}", hash, e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void putMapping(String folder, String name, String objectName) {
+        objectsByName.computeIfAbsent(name, key -> new ConcurrentSkipListMap<>(SHALLOWEST_FIRST)).put(folder, objectName);
+    }
+
+    private Path objectPath(String objectName) {
+        return objectsRoot.resolve(objectName.substring(0, 2)).resolve(objectName);
+    }
+
+    private static String normalizeFolder(String folder) {
+        if (folder == null) {
+            return "";
+        }
+        String normalized = folder.replace('\\', '/');
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private static String extensionOf(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "bin" : name.substring(dot + 1).toLowerCase();
+    }
+}
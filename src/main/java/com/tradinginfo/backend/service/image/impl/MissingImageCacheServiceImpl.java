@@ -0,0 +1,57 @@
+package com.tradinginfo.backend.service.image.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradinginfo.backend.service.image.MissingImageCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Bounded negative cache of image names that resolved to nothing, so a lesson
+ * embedding a never-uploaded image costs one map lookup per view instead of
+ * the whole lookup chain. Entries are dropped as soon as an image with the
+ * same file name is stored or appears on disk; the TTL only covers the legacy
+ * locations outside the upload directory, which nothing watches.
+ */
+@Service
+@Slf4j
+public class MissingImageCacheServiceImpl implements MissingImageCacheService {
+
+    private final Cache<String, Boolean> missing;
+
+    public MissingImageCacheServiceImpl(@Value("${app.images.missing-cache.max-entries:10000}") long maxEntries,
+                                        @Value("${app.images.missing-cache.ttl:10m}") Duration ttl) {
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public boolean isMissing(String name) {
+        return missing.getIfPresent(name) != null;
+    }
+
+    @Override
+    public void markMissing(String name) {
+        missing.put(name, Boolean.TRUE);
+    }
+
+    @Override
+    public void evict(String fileName) {
+        if (missing.estimatedSize() == 0) {
+            return;
+        }
+        // Requests may be folder-qualified, so match on the last path segment
+        missing.asMap().keySet().removeIf(name -> name.equals(fileName) || name.endsWith("/" + fileName));
+    }
+
+    @Override
+    public void clear() {
+        missing.invalidateAll();
+        log.info("Missing image cache cleared");
+    }
+}
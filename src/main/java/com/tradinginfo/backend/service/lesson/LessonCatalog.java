@@ -0,0 +1,59 @@
+package com.tradinginfo.backend.service.lesson;
+
+import com.tradinginfo.backend.repository.LessonSummary;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable, versioned snapshot of the lesson catalog without the large
+ * content columns. A new instance is built after every catalog mutation and
+ * swapped in atomically, so readers never observe a half-updated tree.
+ */
+public final class LessonCatalog {
+
+    private final long version;
+    private final LocalDateTime builtAt;
+    private final List<LessonSummary> entries;
+    private final Map<String, LessonSummary> byPath;
+
+    private LessonCatalog(long version, List<LessonSummary> entries) {
+        this.version = version;
+        this.builtAt = LocalDateTime.now();
+        this.entries = entries.stream()
+                .sorted(Comparator.comparing(LessonSummary::id, Comparator.nullsLast(Long::compareTo)))
+                .toList();
+        this.byPath = this.entries.stream()
+                .collect(Collectors.toMap(LessonSummary::path, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+    }
+
+    public static LessonCatalog of(long version, List<LessonSummary> entries) {
+        return new LessonCatalog(version, entries);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public LocalDateTime builtAt() {
+        return builtAt;
+    }
+
+    public List<LessonSummary> entries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public Optional<LessonSummary> findByPath(String path) {
+        return Optional.ofNullable(byPath.get(path));
+    }
+}
@@ -0,0 +1,6 @@
+package com.tradinginfo.backend.service.lesson;
+
+public interface LessonCatalogService {
+    LessonCatalog getCatalog();
+    void refresh();
+}
@@ -0,0 +1,15 @@
+package com.tradinginfo.backend.service.lesson;
+
+import com.tradinginfo.backend.dto.LessonDTO;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface LessonContentCacheService {
+    Optional<LessonDTO> get(String path, String contentHash);
+    void put(String path, String contentHash, LessonDTO lesson);
+    void evict(String path);
+    void evictFolder(String folder);
+    void clear();
+    Map<String, Object> getStatistics();
+}
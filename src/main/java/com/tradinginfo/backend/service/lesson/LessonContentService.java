@@ -1,8 +1,25 @@
 package com.tradinginfo.backend.service.lesson;
 
 import com.tradinginfo.backend.dto.LessonDTO;
+import com.tradinginfo.backend.dto.LessonField;
+import com.tradinginfo.backend.entity.LessonRendition;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.util.ContentEncoding;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 public interface LessonContentService {
     LessonDTO getLessonContent(String path, Long telegramId);
+    Map<String, Object> getLessonFields(String path, Set<LessonField> fields, Long telegramId);
+    List<Map<String, Object>> getLessonFields(List<String> paths, Set<LessonField> fields);
+    Rendition getLessonRendition(String path, LessonRendition.Format format, ContentEncoding encoding, Long telegramId);
+    Optional<LessonSummary> findLessonSummary(String path);
+    void recordLessonAccess(String path, Long telegramId);
     String resolveLessonLink(String name);
+
+    record Rendition(ContentEncoding encoding, byte[] body) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.tradinginfo.backend.service.lesson;
+
+import com.tradinginfo.backend.dto.LessonNavigationDTO;
+import com.tradinginfo.backend.dto.LessonPrefetchDTO;
+
+import java.util.Optional;
+
+public interface LessonGraphService {
+    Optional<LessonNavigationDTO> getNavigation(String path);
+    Optional<LessonPrefetchDTO> getPrefetch(String path);
+}
@@ -0,0 +1,10 @@
+package com.tradinginfo.backend.service.lesson;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+public interface LessonLinkResolver {
+    Optional<String> resolve(String link);
+    Map<String, String> resolveAll(Collection<String> links);
+}
@@ -0,0 +1,8 @@
+package com.tradinginfo.backend.service.lesson;
+
+import com.tradinginfo.backend.util.PrecompressedBody;
+
+public interface LessonNavigationCacheService {
+    PrecompressedBody getStructureResponse();
+    PrecompressedBody getFoldersResponse();
+}
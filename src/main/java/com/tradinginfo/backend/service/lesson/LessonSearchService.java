@@ -1,9 +1,7 @@
 package com.tradinginfo.backend.service.lesson;
 
-import com.tradinginfo.backend.dto.LessonDTO;
-
-import java.util.List;
+import com.tradinginfo.backend.dto.SearchPageDTO;
 
 public interface LessonSearchService {
-    List<LessonDTO> searchLessons(String query);
-}
\ No newline at end of file
+    SearchPageDTO searchLessons(String query, int offset, int limit, boolean withSnippets);
+}
@@ -0,0 +1,8 @@
+package com.tradinginfo.backend.service.lesson;
+
+import com.tradinginfo.backend.dto.LessonSectionsDTO;
+
+public interface LessonSectionService {
+    LessonSectionsDTO getTableOfContents(String path);
+    LessonSectionsDTO getSection(String path, int index);
+}
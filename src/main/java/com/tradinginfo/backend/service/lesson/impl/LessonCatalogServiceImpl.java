@@ -0,0 +1,54 @@
+package com.tradinginfo.backend.service.lesson.impl;
+
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.service.lesson.LessonCatalog;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonCatalogServiceImpl implements LessonCatalogService {
+
+    private final LessonRepository lessonRepository;
+
+    private final AtomicLong versionSequence = new AtomicLong();
+    private volatile LessonCatalog catalog;
+
+    @Override
+    public LessonCatalog getCatalog() {
+        LessonCatalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                current = catalog;
+                if (current == null) {
+                    current = buildCatalog();
+                    catalog = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public synchronized void refresh() {
+        catalog = buildCatalog();
+    }
+
+    private LessonCatalog buildCatalog() {
+        List<LessonSummary> entries = lessonRepository.findAllSummaries();
+
+        LessonCatalog snapshot = LessonCatalog.of(versionSequence.incrementAndGet(), entries);
+        log.info("Lesson catalog v{} built with {} entries", snapshot.version(), snapshot.size());
+        return snapshot;
+    }
+}
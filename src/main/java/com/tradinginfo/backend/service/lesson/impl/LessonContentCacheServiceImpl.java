@@ -0,0 +1,132 @@
+package com.tradinginfo.backend.service.lesson.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tradinginfo.backend.dto.LessonDTO;
+import com.tradinginfo.backend.service.lesson.LessonContentCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caffeine-backed lesson cache. Caffeine's W-TinyLFU policy decides admission
+ * and eviction; the bound is an estimate of retained heap bytes rather than an
+ * entry count, because lesson sizes differ by orders of magnitude.
+ */
+@Service
+@Slf4j
+public class LessonContentCacheServiceImpl implements LessonContentCacheService {
+
+    // Object headers, record fields and String wrappers per cached lesson
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<String, CachedLesson> cache;
+    private final long maxBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleRejections = new LongAdder();
+
+    public LessonContentCacheServiceImpl(@Value("${app.lessons.content-cache.max-bytes:67108864}") long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String path, CachedLesson cached) -> cached.weight())
+                .recordStats()
+                .build();
+        log.info("Lesson content cache initialised with a {} byte budget", maxBytes);
+    }
+
+    @Override
+    public Optional<LessonDTO> get(String path, String contentHash) {
+        CachedLesson cached = cache.getIfPresent(path);
+        if (cached == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        if (!Objects.equals(cached.contentHash(), contentHash)) {
+            // Rendered content changed since it was cached; drop the entry rather than serve it
+            cache.asMap().remove(path, cached);
+            staleRejections.increment();
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(cached.lesson());
+    }
+
+    @Override
+    public void put(String path, String contentHash, LessonDTO lesson) {
+        cache.put(path, new CachedLesson(contentHash, lesson, weigh(path, lesson)));
+    }
+
+    @Override
+    public void evict(String path) {
+        cache.invalidate(path);
+    }
+
+    @Override
+    public void evictFolder(String folder) {
+        String prefix = folder + "/";
+        cache.asMap().keySet().removeIf(path -> path.startsWith(prefix));
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+        log.info("Lesson content cache cleared");
+    }
+
+    @Override
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum();
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("entries", cache.estimatedSize());
+        statistics.put("weightBytes", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        statistics.put("maxBytes", maxBytes);
+        statistics.put("hits", hitCount);
+        statistics.put("misses", misses.sum());
+        statistics.put("hitRate", requestCount == 0 ? 0.0 : (double) hitCount / requestCount);
+        statistics.put("staleRejections", staleRejections.sum());
+        statistics.put("evictions", stats.evictionCount());
+        statistics.put("evictedBytes", stats.evictionWeight());
+        return statistics;
+    }
+
+    private static int weigh(String path, LessonDTO lesson) {
+        long chars = length(path)
+                + length(lesson.path())
+                + length(lesson.title())
+                + length(lesson.content())
+                + length(lesson.htmlContent())
+                + length(lesson.parentFolder());
+        if (lesson.frontmatter() != null) {
+            for (Map.Entry<String, Object> entry : lesson.frontmatter().entrySet()) {
+                chars += length(entry.getKey()) + length(String.valueOf(entry.getValue()));
+            }
+        }
+        // Cyrillic text defeats compact strings, so assume two bytes per char
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + chars * 2);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record CachedLesson(String contentHash, LessonDTO lesson, int weight) {
+    }
+}
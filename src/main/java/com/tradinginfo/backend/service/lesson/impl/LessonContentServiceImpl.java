@@ -1,23 +1,38 @@
 package com.tradinginfo.backend.service.lesson.impl;
 
 import com.tradinginfo.backend.dto.LessonDTO;
+import com.tradinginfo.backend.dto.LessonField;
 import com.tradinginfo.backend.entity.Lesson;
+import com.tradinginfo.backend.entity.LessonRendition;
 import com.tradinginfo.backend.entity.User;
 import com.tradinginfo.backend.mapper.LessonMapper;
+import com.tradinginfo.backend.repository.LessonRenditionRepository;
 import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
 import com.tradinginfo.backend.repository.UserRepository;
 // import com.tradinginfo.backend.service.infrastructure.RedisCacheService; // REMOVED
 import com.tradinginfo.backend.service.analytics.UserAnalyticsService;
+import com.tradinginfo.backend.service.lesson.LessonCatalog;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import com.tradinginfo.backend.service.lesson.LessonContentCacheService;
 import com.tradinginfo.backend.service.lesson.LessonContentService;
+import com.tradinginfo.backend.service.lesson.LessonLinkResolver;
+import com.tradinginfo.backend.util.ContentEncoding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -26,39 +41,122 @@ import java.util.Optional;
 public class LessonContentServiceImpl implements LessonContentService {
 
     private final LessonRepository lessonRepository;
+    private final LessonRenditionRepository lessonRenditionRepository;
     private final UserRepository userRepository;
     // private final Optional<RedisCacheService> redisCacheService; // REMOVED
     private final LessonMapper lessonMapper;
     private final UserAnalyticsService userAnalyticsService;
+    private final LessonCatalogService lessonCatalogService;
+    private final LessonContentCacheService lessonContentCacheService;
+    private final LessonLinkResolver lessonLinkResolver;
 
     @Override
-    // @Cacheable(value = "lessons", key = "#path", unless = "#result == null") - DISABLED
     public LessonDTO getLessonContent(String path, Long telegramId) {
-        // Normalize path: remove leading slash if present
-        String normalizedPath = path.startsWith("/") ? path.substring(1) : path;
+        String normalizedPath = normalizePath(path);
 
-        // No caching - direct database access
+        // The catalog snapshot knows the current hash, so stale cache entries are never served
+        String currentHash = lessonCatalogService.getCatalog().findByPath(normalizedPath)
+                .map(LessonSummary::contentHash)
+                .orElse(null);
 
-        Lesson lesson = lessonRepository.findByPath(normalizedPath)
-                .orElseThrow(() -> new IllegalArgumentException("Lesson not found: " + normalizedPath));
+        LessonDTO lessonDTO = lessonContentCacheService.get(normalizedPath, currentHash)
+                .orElseGet(() -> loadLesson(normalizedPath));
 
-        LessonDTO lessonDTO = lessonMapper.toDTO(lesson);
-        // No caching
-        Optional.ofNullable(telegramId).ifPresent(id -> userAnalyticsService.trackLessonAccess(id, normalizedPath));
+        recordLessonAccess(normalizedPath, telegramId);
 
         return lessonDTO;
     }
 
     @Override
-    public String resolveLessonLink(String name) {
-        List<Lesson> lessons = lessonRepository.findAll();
-        String lowerCaseName = name.toLowerCase();
-
-        return lessons.stream()
-                .filter(lesson -> lesson.getTitle().toLowerCase().contains(lowerCaseName))
+    public Map<String, Object> getLessonFields(String path, Set<LessonField> fields, Long telegramId) {
+        String normalizedPath = normalizePath(path);
+        Map<String, Object> lesson = getLessonFields(List.of(normalizedPath), fields).stream()
                 .findFirst()
-                .map(Lesson::getPath)
+                .orElseThrow(() -> new IllegalArgumentException("Lesson not found: " + normalizedPath));
+
+        recordLessonAccess(normalizedPath, telegramId);
+        return lesson;
+    }
+
+    @Override
+    public List<Map<String, Object>> getLessonFields(List<String> paths, Set<LessonField> fields) {
+        LessonCatalog catalog = lessonCatalogService.getCatalog();
+        Map<String, Map<String, Object>> found = new HashMap<>();
+        List<String> toLoad = new ArrayList<>();
+
+        // Cached full lessons are projected in memory; only the rest hit the database, and only for the selected columns
+        for (String path : paths) {
+            String normalizedPath = normalizePath(path);
+            String currentHash = catalog.findByPath(normalizedPath).map(LessonSummary::contentHash).orElse(null);
+            Optional<LessonDTO> cached = lessonContentCacheService.get(normalizedPath, currentHash);
+            if (cached.isPresent()) {
+                found.put(normalizedPath, project(cached.get(), fields));
+            } else {
+                toLoad.add(normalizedPath);
+            }
+        }
+        lessonRepository.findFieldsByPathIn(toLoad, fields)
+                .forEach(lesson -> found.put((String) lesson.get(LessonField.PATH.fieldName()), lesson));
+
+        return paths.stream()
+                .map(path -> found.get(normalizePath(path)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public Rendition getLessonRendition(String path, LessonRendition.Format format, ContentEncoding encoding, Long telegramId) {
+        String normalizedPath = normalizePath(path);
+
+        if (encoding != ContentEncoding.IDENTITY) {
+            Optional<byte[]> stored = lessonRenditionRepository.findData(normalizedPath, format, encoding);
+            if (stored.isPresent()) {
+                recordLessonAccess(normalizedPath, telegramId);
+                return new Rendition(encoding, stored.get());
+            }
+            log.debug("No stored {} {} rendition for {}, serving identity", format, encoding, normalizedPath);
+        }
+
+        LessonDTO lesson = getLessonContent(normalizedPath, telegramId);
+        String text = format == LessonRendition.Format.HTML ? lesson.htmlContent() : lesson.content();
+        return new Rendition(ContentEncoding.IDENTITY, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Optional<LessonSummary> findLessonSummary(String path) {
+        return lessonCatalogService.getCatalog().findByPath(normalizePath(path));
+    }
+
+    @Override
+    public void recordLessonAccess(String path, Long telegramId) {
+        String normalizedPath = normalizePath(path);
+        Optional.ofNullable(telegramId).ifPresent(id -> userAnalyticsService.trackLessonAccess(id, normalizedPath));
+    }
+
+    @Override
+    public String resolveLessonLink(String name) {
+        return lessonLinkResolver.resolve(name)
                 .orElseThrow(() -> new IllegalArgumentException("Link not found: " + name));
     }
 
+    private static Map<String, Object> project(LessonDTO lesson, Set<LessonField> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        fields.forEach(field -> values.put(field.fieldName(), field.valueOf(lesson)));
+        return values;
+    }
+
+    private String normalizePath(String path) {
+        // Normalize path: remove leading slash if present
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private LessonDTO loadLesson(String normalizedPath) {
+        Lesson lesson = lessonRepository.findByPath(normalizedPath)
+                .orElseThrow(() -> new IllegalArgumentException("Lesson not found: " + normalizedPath));
+
+        LessonDTO lessonDTO = lessonMapper.toDTO(lesson);
+        lessonContentCacheService.put(normalizedPath, lesson.getContentHash(), lessonDTO);
+        return lessonDTO;
+    }
+
 }
\ No newline at end of file
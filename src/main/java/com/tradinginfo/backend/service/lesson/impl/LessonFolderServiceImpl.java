@@ -1,20 +1,19 @@
 package com.tradinginfo.backend.service.lesson.impl;
 
 import com.tradinginfo.backend.dto.FolderDTO;
-import com.tradinginfo.backend.entity.Lesson;
-import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
 // import com.tradinginfo.backend.service.infrastructure.RedisCacheService; // REMOVED
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
 import com.tradinginfo.backend.service.lesson.LessonFolderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
@@ -22,7 +21,7 @@ import java.util.stream.Stream;
 @Slf4j
 public class LessonFolderServiceImpl implements LessonFolderService {
 
-    private final LessonRepository lessonRepository;
+    private final LessonCatalogService lessonCatalogService;
     // private final Optional<RedisCacheService> redisCacheService; // REMOVED
 
     @Value("${app.lessons.default-category}")
@@ -41,10 +40,11 @@ public class LessonFolderServiceImpl implements LessonFolderService {
     }
 
     private List<FolderDTO> loadLessonFolders() {
-        log.debug("Loading lesson folders from database");
+        List<LessonSummary> entries = lessonCatalogService.getCatalog().entries();
+        log.debug("Loading lesson folders from catalog snapshot ({} entries)", entries.size());
 
         // Get folders from lessons with parentFolder (existing logic)
-        List<String> folderNamesFromParent = lessonRepository.findAll().stream()
+        List<String> folderNamesFromParent = entries.stream()
                 .map(this::extractLevel)
                 .filter(Objects::nonNull)
                 .filter(name -> !defaultCategory.equals(name))
@@ -52,41 +52,37 @@ public class LessonFolderServiceImpl implements LessonFolderService {
                 .toList();
 
         // Get folders that are marked as isFolder = true
-        List<String> folderNamesFromIsFolder = lessonRepository.findAll().stream()
-                .filter(lesson -> Boolean.TRUE.equals(lesson.getIsFolder()))
-                .map(Lesson::getTitle)
+        List<String> folderNamesFromIsFolder = entries.stream()
+                .filter(LessonSummary::isFolder)
+                .map(LessonSummary::title)
                 .filter(Objects::nonNull)
                 .distinct()
                 .toList();
 
         // Combine both lists and remove duplicates
-        List<String> allFolderNames = Stream.concat(
+        List<String> allFolderNames = new ArrayList<>(Stream.concat(
                 folderNamesFromParent.stream(),
                 folderNamesFromIsFolder.stream()
         )
                 .distinct()
                 .sorted(this::sortFoldersByLevel)
-                .toList();
+                .toList());
 
         // Add default category if there are lessons without a parent folder and not in any isFolder
-        boolean hasOrphanLessons = lessonRepository.findAll().stream()
-                .anyMatch(lesson -> lesson.getParentFolder() == null &&
-                         !Boolean.TRUE.equals(lesson.getIsFolder()));
+        boolean hasOrphanLessons = entries.stream()
+                .anyMatch(entry -> entry.parentFolder() == null && !entry.isFolder());
 
         if (hasOrphanLessons) {
             allFolderNames.add(defaultCategory);
         }
 
-        List<FolderDTO> folders = allFolderNames.stream()
+        return allFolderNames.stream()
                 .map(folderName -> FolderDTO.create(folderName, folderName))
                 .toList();
-
-        // No caching - return directly
-        return folders;
     }
 
-    private String extractLevel(Lesson lesson) {
-        String parentFolder = lesson.getParentFolder();
+    private String extractLevel(LessonSummary entry) {
+        String parentFolder = entry.parentFolder();
 
         if (parentFolder == null) {
             return defaultCategory;
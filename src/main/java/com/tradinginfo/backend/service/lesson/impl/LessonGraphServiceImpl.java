@@ -0,0 +1,199 @@
+package com.tradinginfo.backend.service.lesson.impl;
+
+import com.tradinginfo.backend.dto.LessonNavigationDTO;
+import com.tradinginfo.backend.dto.LessonNavigationDTO.LessonRefDTO;
+import com.tradinginfo.backend.dto.LessonPrefetchDTO;
+import com.tradinginfo.backend.repository.LessonLinks;
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.service.image.ImageStoreService;
+import com.tradinginfo.backend.service.lesson.LessonCatalog;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import com.tradinginfo.backend.service.lesson.LessonGraphService;
+import com.tradinginfo.backend.service.lesson.LessonLinkResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lesson link graph built once per catalog version from the link targets
+ * stored at ingest. Lessons are numbered densely and edges are kept as int
+ * arrays in both directions, so a navigation lookup is one map hit plus a
+ * few array reads. Link targets are resolved at build time, which lets links
+ * to lessons uploaded later start resolving without re-ingesting the source.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonGraphServiceImpl implements LessonGraphService {
+
+    private static final int[] NO_EDGES = new int[0];
+
+    private final LessonCatalogService lessonCatalogService;
+    private final LessonRepository lessonRepository;
+    private final LessonLinkResolver lessonLinkResolver;
+    private final ImageStoreService imageStoreService;
+
+    private volatile Graph graph;
+
+    @Override
+    public Optional<LessonNavigationDTO> getNavigation(String path) {
+        String normalizedPath = path.startsWith("/") ? path.substring(1) : path;
+        Graph current = currentGraph();
+        Integer id = current.ids().get(normalizedPath);
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new LessonNavigationDTO(
+                normalizedPath,
+                current.ref(current.previous()[id]),
+                current.ref(current.next()[id]),
+                current.refs(current.outbound()[id]),
+                current.refs(current.backlinks()[id]),
+                current.images().get(id),
+                current.unresolved().get(id)));
+    }
+
+    @Override
+    public Optional<LessonPrefetchDTO> getPrefetch(String path) {
+        String normalizedPath = path.startsWith("/") ? path.substring(1) : path;
+        Graph current = currentGraph();
+        Integer id = current.ids().get(normalizedPath);
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        int next = current.next()[id];
+        List<String> nextImages = next < 0 ? List.of() : storedImageUrls(current.lessons().get(next), current.images().get(next));
+        return Optional.of(new LessonPrefetchDTO(normalizedPath, current.ref(next), nextImages));
+    }
+
+    private Graph currentGraph() {
+        LessonCatalog catalog = lessonCatalogService.getCatalog();
+        Graph current = graph;
+        if (current == null || current.catalogVersion() != catalog.version()) {
+            synchronized (this) {
+                current = graph;
+                if (current == null || current.catalogVersion() != catalog.version()) {
+                    current = build(catalog);
+                    graph = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Graph build(LessonCatalog catalog) {
+        List<LessonSummary> lessons = catalog.entries().stream()
+                .filter(lesson -> !lesson.isFolder())
+                .toList();
+        int size = lessons.size();
+
+        Map<String, Integer> ids = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            ids.put(lessons.get(i).path(), i);
+        }
+
+        // Prev/next follow lesson numbers within a folder; unnumbered lessons go last, by path
+        int[] previous = new int[size];
+        int[] next = new int[size];
+        Arrays.fill(previous, -1);
+        Arrays.fill(next, -1);
+        Map<String, List<LessonSummary>> byFolder = lessons.stream()
+                .collect(Collectors.groupingBy(lesson -> lesson.parentFolder() != null ? lesson.parentFolder() : ""));
+        Comparator<LessonSummary> order = Comparator
+                .comparing(LessonSummary::lessonNumber, Comparator.nullsLast(Integer::compareTo))
+                .thenComparing(LessonSummary::path);
+        for (List<LessonSummary> folderLessons : byFolder.values()) {
+            List<LessonSummary> sorted = folderLessons.stream().sorted(order).toList();
+            for (int i = 1; i < sorted.size(); i++) {
+                int before = ids.get(sorted.get(i - 1).path());
+                int after = ids.get(sorted.get(i).path());
+                next[before] = after;
+                previous[after] = before;
+            }
+        }
+
+        int[][] outbound = new int[size][];
+        List<List<String>> images = new ArrayList<>(Collections.nCopies(size, List.of()));
+        List<List<String>> unresolved = new ArrayList<>(Collections.nCopies(size, List.of()));
+        Arrays.fill(outbound, NO_EDGES);
+        int[] backlinkCounts = new int[size];
+
+        for (LessonLinks links : lessonRepository.findAllLinks()) {
+            Integer source = ids.get(links.path());
+            if (source == null) {
+                continue;
+            }
+            Set<Integer> targets = new LinkedHashSet<>();
+            List<String> missing = new ArrayList<>();
+            for (String link : links.outboundLinks()) {
+                Optional<Integer> target = lessonLinkResolver.resolve(link).map(ids::get);
+                if (target.isPresent()) {
+                    if (!target.get().equals(source)) {
+                        targets.add(target.get());
+                    }
+                } else {
+                    missing.add(link);
+                }
+            }
+            outbound[source] = targets.stream().mapToInt(Integer::intValue).toArray();
+            targets.forEach(target -> backlinkCounts[target]++);
+            images.set(source, List.copyOf(links.imageEmbeds()));
+            unresolved.set(source, List.copyOf(missing));
+        }
+
+        int[][] backlinks = new int[size][];
+        for (int i = 0; i < size; i++) {
+            backlinks[i] = backlinkCounts[i] == 0 ? NO_EDGES : new int[backlinkCounts[i]];
+        }
+        int[] filled = new int[size];
+        for (int source = 0; source < size; source++) {
+            for (int target : outbound[source]) {
+                backlinks[target][filled[target]++] = source;
+            }
+        }
+
+        log.debug("Lesson graph built for catalog v{}: {} lessons", catalog.version(), size);
+        return new Graph(catalog.version(), lessons, ids, previous, next, outbound, backlinks, images, unresolved);
+    }
+
+    private List<String> storedImageUrls(LessonSummary lesson, List<String> images) {
+        // Prefetch the same content-addressed URLs the rendered HTML points at
+        return images.stream()
+                .map(image -> imageStoreService.resolve(lesson.parentFolder(), image.substring(image.lastIndexOf('/') + 1))
+                        .map(imageStoreService::objectUrl)
+                        .orElse(image))
+                .toList();
+    }
+
+    private record Graph(long catalogVersion, List<LessonSummary> lessons, Map<String, Integer> ids,
+                         int[] previous, int[] next, int[][] outbound, int[][] backlinks,
+                         List<List<String>> images, List<List<String>> unresolved) {
+
+        LessonRefDTO ref(int id) {
+            if (id < 0) {
+                return null;
+            }
+            LessonSummary lesson = lessons.get(id);
+            return new LessonRefDTO(lesson.path(), lesson.title());
+        }
+
+        List<LessonRefDTO> refs(int[] edges) {
+            return Arrays.stream(edges).mapToObj(this::ref).toList();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.tradinginfo.backend.service.lesson.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradinginfo.backend.repository.LessonFrontmatter;
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.service.lesson.LessonCatalog;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import com.tradinginfo.backend.service.lesson.LessonLinkResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves Obsidian-style [[links]] against normalized lookup tables built
+ * once per catalog version. Matches are tried in a fixed order so the same
+ * link always resolves to the same lesson: exact path, exact title, file
+ * name, frontmatter alias, title prefix, title substring. Within the prefix
+ * and substring tiers the shortest title wins, then the path.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonLinkResolverImpl implements LessonLinkResolver {
+
+    private static final String ALIASES_KEY = "aliases";
+    private static final int RESOLUTION_CACHE_SIZE = 10_000;
+
+    private final LessonCatalogService lessonCatalogService;
+    private final LessonRepository lessonRepository;
+
+    private volatile Snapshot snapshot;
+
+    @Override
+    public Optional<String> resolve(String link) {
+        String normalized = normalizeLink(link);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        Snapshot current = currentSnapshot();
+        return current.resolutions().get(normalized, current::lookup);
+    }
+
+    @Override
+    public Map<String, String> resolveAll(Collection<String> links) {
+        Map<String, String> resolved = new LinkedHashMap<>();
+        for (String link : links) {
+            resolve(link).ifPresent(path -> resolved.put(link, path));
+        }
+        return resolved;
+    }
+
+    private Snapshot currentSnapshot() {
+        LessonCatalog catalog = lessonCatalogService.getCatalog();
+        Snapshot current = snapshot;
+        if (current == null || current.catalogVersion() != catalog.version()) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || current.catalogVersion() != catalog.version()) {
+                    current = build(catalog);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot build(LessonCatalog catalog) {
+        // Entries are visited in path order, so the first lesson claiming a key keeps it
+        List<LessonSummary> lessons = catalog.entries().stream()
+                .filter(lesson -> !lesson.isFolder())
+                .sorted(Comparator.comparing(LessonSummary::path))
+                .toList();
+
+        Map<String, String> byPath = new HashMap<>();
+        Map<String, String> byTitle = new HashMap<>();
+        Map<String, String> byFileName = new HashMap<>();
+        Map<String, String> byAlias = new HashMap<>();
+        String[] titles = new String[lessons.size()];
+        String[] paths = new String[lessons.size()];
+
+        for (int i = 0; i < lessons.size(); i++) {
+            LessonSummary lesson = lessons.get(i);
+            byPath.putIfAbsent(normalize(stripExtension(lesson.path())), lesson.path());
+            byTitle.putIfAbsent(normalize(lesson.title()), lesson.path());
+            byFileName.putIfAbsent(normalize(stripExtension(fileName(lesson.path()))), lesson.path());
+            titles[i] = normalize(lesson.title());
+            paths[i] = lesson.path();
+        }
+
+        for (LessonFrontmatter lesson : lessonRepository.findAllFrontmatter()) {
+            if (catalog.findByPath(lesson.path()).isEmpty()) {
+                continue;
+            }
+            for (String alias : aliases(lesson.frontmatter().get(ALIASES_KEY))) {
+                byAlias.merge(normalize(alias), lesson.path(), (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+
+        log.debug("Link index built for catalog v{}: {} lessons, {} aliases", catalog.version(), lessons.size(), byAlias.size());
+        return new Snapshot(catalog.version(), byPath, List.of(byTitle, byFileName, byAlias), titles, paths,
+                Caffeine.newBuilder().maximumSize(RESOLUTION_CACHE_SIZE).build());
+    }
+
+    /**
+     * Reduces "[[folder/Lesson name#Heading|label]]" to a normalized "folder/lesson name".
+     */
+    private static String normalizeLink(String link) {
+        if (link == null) {
+            return "";
+        }
+        String target = link.trim();
+        if (target.startsWith("[[") && target.endsWith("]]")) {
+            target = target.substring(2, target.length() - 2);
+        }
+        int pipe = target.indexOf('|');
+        if (pipe >= 0) {
+            target = target.substring(0, pipe);
+        }
+        int hash = target.indexOf('#');
+        if (hash >= 0) {
+            target = target.substring(0, hash);
+        }
+        if (target.startsWith("/")) {
+            target = target.substring(1);
+        }
+        return normalize(stripExtension(target));
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().toLowerCase().replace('ё', 'е').replaceAll("\\s+", " ");
+    }
+
+    private static String stripExtension(String path) {
+        return path.toLowerCase().endsWith(".md") ? path.substring(0, path.length() - 3) : path;
+    }
+
+    private static String fileName(String path) {
+        int slash = path.lastIndexOf('/');
+        return slash < 0 ? path : path.substring(slash + 1);
+    }
+
+    private static List<String> aliases(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.stream().map(String::valueOf).toList();
+        }
+        if (value == null) {
+            return List.of();
+        }
+        // Inline frontmatter lists arrive as raw strings such as "[Alias one, 'Alias two']"
+        String raw = value.toString().trim();
+        if (raw.startsWith("[") && raw.endsWith("]")) {
+            raw = raw.substring(1, raw.length() - 1);
+        }
+        return Arrays.stream(raw.split(","))
+                .map(alias -> alias.trim().replaceAll("^['\"]|['\"]$", ""))
+                .filter(alias -> !alias.isEmpty())
+                .toList();
+    }
+
+    private record Snapshot(long catalogVersion, Map<String, String> byPath, List<Map<String, String>> nameTiers,
+                            String[] titles, String[] paths, Cache<String, Optional<String>> resolutions) {
+
+        Optional<String> lookup(String link) {
+            String path = byPath.get(link);
+            if (path != null) {
+                return Optional.of(path);
+            }
+
+            String name = fileName(link);
+            for (Map<String, String> tier : nameTiers) {
+                path = tier.get(name);
+                if (path != null) {
+                    return Optional.of(path);
+                }
+            }
+
+            Optional<String> prefixMatch = bestTitleMatch(name, true);
+            return prefixMatch.isPresent() ? prefixMatch : bestTitleMatch(name, false);
+        }
+
+        private Optional<String> bestTitleMatch(String name, boolean prefix) {
+            int best = -1;
+            for (int i = 0; i < titles.length; i++) {
+                boolean matches = prefix ? titles[i].startsWith(name) : titles[i].contains(name);
+                if (matches && (best < 0 || titles[i].length() < titles[best].length())) {
+                    best = i;
+                }
+            }
+            return best < 0 ? Optional.empty() : Optional.of(paths[best]);
+        }
+    }
+}
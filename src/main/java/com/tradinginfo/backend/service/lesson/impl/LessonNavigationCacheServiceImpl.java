@@ -0,0 +1,67 @@
+package com.tradinginfo.backend.service.lesson.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import com.tradinginfo.backend.service.lesson.LessonFolderService;
+import com.tradinginfo.backend.service.lesson.LessonNavigationCacheService;
+import com.tradinginfo.backend.service.lesson.LessonStructureService;
+import com.tradinginfo.backend.util.ContentEncoding;
+import com.tradinginfo.backend.util.PrecompressedBody;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonNavigationCacheServiceImpl implements LessonNavigationCacheService {
+
+    private final LessonCatalogService lessonCatalogService;
+    private final LessonStructureService lessonStructureService;
+    private final LessonFolderService lessonFolderService;
+    private final ObjectMapper objectMapper;
+
+    private volatile Rendered structure;
+    private volatile Rendered folders;
+
+    @Override
+    public PrecompressedBody getStructureResponse() {
+        long version = lessonCatalogService.getCatalog().version();
+        Rendered current = structure;
+        if (current == null || current.catalogVersion() != version) {
+            current = render(version, "structure", () -> Map.of("structure", lessonStructureService.getLessonStructure()));
+            structure = current;
+        }
+        return current.body();
+    }
+
+    @Override
+    public PrecompressedBody getFoldersResponse() {
+        long version = lessonCatalogService.getCatalog().version();
+        Rendered current = folders;
+        if (current == null || current.catalogVersion() != version) {
+            current = render(version, "folders", () -> Map.of("folders", lessonFolderService.getLessonFolders()));
+            folders = current;
+        }
+        return current.body();
+    }
+
+    private Rendered render(long version, String name, Supplier<Object> payload) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload.get());
+            PrecompressedBody body = PrecompressedBody.of(json, EnumSet.allOf(ContentEncoding.class));
+            log.debug("Rendered lesson {} response for catalog v{}: {} bytes, etag {}", name, version, json.length, body.etag());
+            return new Rendered(version, body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize lesson " + name, e);
+        }
+    }
+
+    private record Rendered(long catalogVersion, PrecompressedBody body) {
+    }
+}
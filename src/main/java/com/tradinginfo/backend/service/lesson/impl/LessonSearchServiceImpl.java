@@ -1,27 +1,76 @@
 package com.tradinginfo.backend.service.lesson.impl;
 
-import com.tradinginfo.backend.dto.LessonDTO;
-import com.tradinginfo.backend.mapper.LessonMapper;
+import com.tradinginfo.backend.dto.SearchPageDTO;
+import com.tradinginfo.backend.dto.SearchResultDTO;
 import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.repository.LessonText;
+import com.tradinginfo.backend.service.lesson.LessonCatalog;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
 import com.tradinginfo.backend.service.lesson.LessonSearchService;
+import com.tradinginfo.backend.service.search.LessonSearchIndex;
+import com.tradinginfo.backend.service.search.analysis.SnippetBuilder;
+import com.tradinginfo.backend.service.search.analysis.TextAnalyzer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory", matchIfMissing = true)
 public class LessonSearchServiceImpl implements LessonSearchService {
 
+    private static final int SNIPPET_WORDS = 30;
+
     private final LessonRepository lessonRepository;
-    private final LessonMapper lessonMapper;
+    private final LessonCatalogService lessonCatalogService;
+    private final LessonSearchIndex lessonSearchIndex;
+
+    @Value("${app.search.max-results:50}")
+    private int maxResults;
 
     @Override
-    public List<LessonDTO> searchLessons(String query) {
-        return lessonRepository.searchLessons(query).stream()
-                .map(lessonMapper::toDTO)
+    public SearchPageDTO searchLessons(String query, int offset, int limit, boolean withSnippets) {
+        int pageOffset = Math.max(0, offset);
+        int pageLimit = Math.min(Math.max(1, limit), maxResults);
+
+        LessonCatalog catalog = lessonCatalogService.getCatalog();
+        // Lessons missing from the catalog are excluded inside the index so they never count towards the total
+        LessonSearchIndex.Result result = lessonSearchIndex.search(query, pageOffset, pageLimit,
+                path -> catalog.findByPath(path).isPresent());
+        if (result.hits().isEmpty()) {
+            return SearchPageDTO.of(List.of(), result.total(), pageOffset, pageLimit);
+        }
+
+        // Only the returned page is read back from the database, and only its markdown body
+        Map<String, String> contents = withSnippets
+                ? lessonRepository.findTextByPathIn(result.hits().stream().map(LessonSearchIndex.Hit::path).toList())
+                        .stream()
+                        .collect(Collectors.toMap(LessonText::path, text -> text.content() != null ? text.content() : ""))
+                : Map.of();
+        Set<String> queryTerms = new HashSet<>(TextAnalyzer.analyze(query));
+
+        List<SearchResultDTO> results = result.hits().stream()
+                .map(hit -> {
+                    Optional<LessonSummary> summary = catalog.findByPath(hit.path());
+                    return new SearchResultDTO(
+                            hit.path(),
+                            summary.map(LessonSummary::title).orElse(hit.path()),
+                            summary.map(LessonSummary::parentFolder).orElse(null),
+                            hit.score(),
+                            withSnippets ? SnippetBuilder.build(contents.get(hit.path()), queryTerms, SNIPPET_WORDS) : null);
+                })
                 .toList();
+        return SearchPageDTO.of(results, result.total(), pageOffset, pageLimit);
     }
-}
\ No newline at end of file
+}
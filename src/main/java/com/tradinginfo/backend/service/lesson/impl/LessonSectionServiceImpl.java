@@ -0,0 +1,85 @@
+package com.tradinginfo.backend.service.lesson.impl;
+
+import com.tradinginfo.backend.dto.LessonField;
+import com.tradinginfo.backend.dto.LessonSectionsDTO;
+import com.tradinginfo.backend.dto.LessonSectionsDTO.SectionDTO;
+import com.tradinginfo.backend.dto.LessonSectionsDTO.TocEntryDTO;
+import com.tradinginfo.backend.entity.LessonSection;
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSectionRepository;
+import com.tradinginfo.backend.repository.LessonSectionSummary;
+import com.tradinginfo.backend.service.lesson.LessonSectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class LessonSectionServiceImpl implements LessonSectionService {
+
+    private final LessonSectionRepository lessonSectionRepository;
+    private final LessonRepository lessonRepository;
+
+    @Override
+    public LessonSectionsDTO getTableOfContents(String path) {
+        String normalizedPath = normalizePath(path);
+        List<LessonSectionSummary> toc = lessonSectionRepository.findTableOfContents(normalizedPath);
+        if (toc.isEmpty()) {
+            return wholeLesson(normalizedPath, true);
+        }
+
+        SectionDTO first = lessonSectionRepository.findByLessonPathAndSectionIndex(normalizedPath, 0)
+                .map(LessonSectionServiceImpl::toDTO)
+                .orElse(null);
+        List<TocEntryDTO> entries = toc.stream()
+                .map(section -> new TocEntryDTO(section.index(), section.heading(), section.level(), section.wordCount()))
+                .toList();
+        return new LessonSectionsDTO(normalizedPath, entries.size(), entries, first);
+    }
+
+    @Override
+    public LessonSectionsDTO getSection(String path, int index) {
+        String normalizedPath = normalizePath(path);
+        return lessonSectionRepository.findByLessonPathAndSectionIndex(normalizedPath, index)
+                .map(section -> new LessonSectionsDTO(normalizedPath, null, null, toDTO(section)))
+                .orElseGet(() -> {
+                    if (index == 0) {
+                        return wholeLesson(normalizedPath, false);
+                    }
+                    throw new IllegalArgumentException("Section " + index + " not found for lesson: " + normalizedPath);
+                });
+    }
+
+    /**
+     * Lessons ingested before sectioning existed are served as a single section.
+     */
+    private LessonSectionsDTO wholeLesson(String path, boolean withToc) {
+        Map<String, Object> lesson = lessonRepository
+                .findFieldsByPathIn(List.of(path), EnumSet.of(LessonField.PATH, LessonField.TITLE, LessonField.HTML_CONTENT, LessonField.WORD_COUNT))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Lesson not found: " + path));
+
+        String title = (String) lesson.get(LessonField.TITLE.fieldName());
+        SectionDTO section = new SectionDTO(0, title, 1, (String) lesson.get(LessonField.HTML_CONTENT.fieldName()));
+        List<TocEntryDTO> toc = withToc
+                ? List.of(new TocEntryDTO(0, title, 1, (Integer) lesson.get(LessonField.WORD_COUNT.fieldName())))
+                : null;
+        return new LessonSectionsDTO(path, withToc ? 1 : null, toc, section);
+    }
+
+    private static SectionDTO toDTO(LessonSection section) {
+        return new SectionDTO(section.getSectionIndex(), section.getHeading(), section.getLevel(), section.getHtmlContent());
+    }
+
+    private String normalizePath(String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+}
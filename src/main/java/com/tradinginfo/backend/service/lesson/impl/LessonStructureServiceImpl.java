@@ -1,15 +1,13 @@
 package com.tradinginfo.backend.service.lesson.impl;
 
 import com.tradinginfo.backend.dto.LessonStructureDTO;
-import com.tradinginfo.backend.entity.Lesson;
-import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
 import com.tradinginfo.backend.service.lesson.LessonStructureService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Comparator;
 import java.util.List;
@@ -19,10 +17,9 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
 public class LessonStructureServiceImpl implements LessonStructureService {
 
-    private final LessonRepository lessonRepository;
+    private final LessonCatalogService lessonCatalogService;
 
     @Value("${app.lessons.default-category}")
     private String defaultCategory;
@@ -37,10 +34,10 @@ public class LessonStructureServiceImpl implements LessonStructureService {
     @Override
     // @Cacheable(value = "lessonStructure", unless = "#result.isEmpty()") - DISABLED
     public List<LessonStructureDTO> getLessonStructure() {
-        List<Lesson> allLessons = lessonRepository.findAll();
+        List<LessonSummary> allLessons = lessonCatalogService.getCatalog().entries();
 
-        Map<String, List<Lesson>> lessonsByLevel = allLessons.stream()
-                .filter(lesson -> lesson.getParentFolder() != null)
+        Map<String, List<LessonSummary>> lessonsByLevel = allLessons.stream()
+                .filter(lesson -> lesson.parentFolder() != null)
                 .collect(Collectors.groupingBy(this::extractLevel));
 
         return lessonsByLevel.entrySet().stream()
@@ -49,32 +46,32 @@ public class LessonStructureServiceImpl implements LessonStructureService {
                 .collect(Collectors.toList());
     }
 
-    private LessonStructureDTO createLevelStructure(Map.Entry<String, List<Lesson>> entry) {
+    private LessonStructureDTO createLevelStructure(Map.Entry<String, List<LessonSummary>> entry) {
         String levelName = entry.getKey();
         String levelId = generateId(levelName, "level");
 
         List<LessonStructureDTO> children = entry.getValue().stream()
-                .sorted(Comparator.comparing(Lesson::getLessonNumber, Comparator.nullsLast(Integer::compareTo)))
+                .sorted(Comparator.comparing(LessonSummary::lessonNumber, Comparator.nullsLast(Integer::compareTo)))
                 .map(this::createLessonStructure)
                 .collect(Collectors.toList());
 
         return LessonStructureDTO.createFolder(levelId, levelName, levelName, children);
     }
 
-    private LessonStructureDTO createLessonStructure(Lesson lesson) {
-        String lessonId = generateId(lesson.getPath(), "lesson");
-        String filename = extractFilename(lesson.getPath());
+    private LessonStructureDTO createLessonStructure(LessonSummary lesson) {
+        String lessonId = generateId(lesson.path(), "lesson");
+        String filename = extractFilename(lesson.path());
 
         return LessonStructureDTO.createFile(
                 lessonId,
-                lesson.getTitle(),
-                lesson.getPath(),
+                lesson.title(),
+                lesson.path(),
                 filename
         );
     }
 
-    private String extractLevel(Lesson lesson) {
-        String parentFolder = lesson.getParentFolder();
+    private String extractLevel(LessonSummary lesson) {
+        String parentFolder = lesson.parentFolder();
 
         if (parentFolder == null) {
             return defaultCategory;
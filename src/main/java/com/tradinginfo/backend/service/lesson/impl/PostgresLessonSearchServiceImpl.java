@@ -0,0 +1,125 @@
+package com.tradinginfo.backend.service.lesson.impl;
+
+import com.tradinginfo.backend.dto.SearchPageDTO;
+import com.tradinginfo.backend.dto.SearchResultDTO;
+import com.tradinginfo.backend.service.lesson.LessonSearchService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * Search backed by a stored, generated tsvector column (title weighted A,
+ * body weighted B, russian configuration) behind a GIN index, so every
+ * backend instance shares the same index and lookups do not scan the table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+public class PostgresLessonSearchServiceImpl implements LessonSearchService {
+
+    private static final String ADD_SEARCH_VECTOR_COLUMN = """
+            ALTER TABLE lessons ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+                    setweight(to_tsvector('russian', coalesce(content, '')), 'B')
+                ) STORED""";
+
+    private static final String CREATE_SEARCH_VECTOR_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_lessons_search_vector ON lessons USING GIN (search_vector)";
+
+    // ts_headline returns the raw markdown, so matches are delimited by control characters that survive
+    // HTML escaping and only become <mark> tags afterwards
+    private static final char START_SEL = '\u0002';
+    private static final char STOP_SEL = '\u0003';
+    private static final String HEADLINE_OPTIONS =
+            "StartSel=" + START_SEL + ", StopSel=" + STOP_SEL + ", MaxWords=30, MinWords=15, MaxFragments=1";
+
+    // Rank and page first, then build headlines for the returned rows only
+    private static final String SEARCH_QUERY = """
+            SELECT p.path, p.title, p.parent_folder, p.score, p.total,
+                   ts_headline('russian', l.content, websearch_to_tsquery('russian', ?), ?) AS snippet
+            FROM (
+                SELECT l.id, l.path, l.title, l.parent_folder,
+                       ts_rank_cd(l.search_vector, q) AS score,
+                       count(*) OVER () AS total
+                FROM lessons l, websearch_to_tsquery('russian', ?) q
+                WHERE l.search_vector @@ q AND l.is_folder IS NOT TRUE
+                ORDER BY score DESC, l.path
+                LIMIT ? OFFSET ?
+            ) p
+            JOIN lessons l ON l.id = p.id
+            ORDER BY p.score DESC, p.path""";
+
+    private static final String SEARCH_QUERY_WITHOUT_SNIPPETS = """
+            SELECT l.path, l.title, l.parent_folder,
+                   ts_rank_cd(l.search_vector, q) AS score,
+                   count(*) OVER () AS total
+            FROM lessons l, websearch_to_tsquery('russian', ?) q
+            WHERE l.search_vector @@ q AND l.is_folder IS NOT TRUE
+            ORDER BY score DESC, l.path
+            LIMIT ? OFFSET ?""";
+
+    private static final String COUNT_QUERY = """
+            SELECT count(*)
+            FROM lessons l, websearch_to_tsquery('russian', ?) q
+            WHERE l.search_vector @@ q AND l.is_folder IS NOT TRUE""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.search.max-results:50}")
+    private int maxResults;
+
+    @PostConstruct
+    void ensureSearchSchema() {
+        // Hibernate's ddl-auto does not know about generated columns, so they are managed here
+        jdbcTemplate.execute(ADD_SEARCH_VECTOR_COLUMN);
+        jdbcTemplate.execute(CREATE_SEARCH_VECTOR_INDEX);
+        log.info("PostgreSQL full-text search enabled");
+    }
+
+    @Override
+    public SearchPageDTO searchLessons(String query, int offset, int limit, boolean withSnippets) {
+        int pageOffset = Math.max(0, offset);
+        int pageLimit = Math.min(Math.max(1, limit), maxResults);
+        if (query == null || query.isBlank()) {
+            return SearchPageDTO.empty(pageOffset, pageLimit);
+        }
+
+        long[] total = {0};
+        String sql = withSnippets ? SEARCH_QUERY : SEARCH_QUERY_WITHOUT_SNIPPETS;
+        Object[] args = withSnippets
+                ? new Object[]{query, HEADLINE_OPTIONS, query, pageLimit, pageOffset}
+                : new Object[]{query, pageLimit, pageOffset};
+        List<SearchResultDTO> results = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            total[0] = rs.getLong("total");
+            return new SearchResultDTO(
+                    rs.getString("path"),
+                    rs.getString("title"),
+                    rs.getString("parent_folder"),
+                    rs.getDouble("score"),
+                    withSnippets ? highlight(rs.getString("snippet")) : null);
+        }, args);
+        if (results.isEmpty() && pageOffset > 0) {
+            // The window count comes with the rows, so a page past the last hit needs its own count
+            total[0] = jdbcTemplate.queryForObject(COUNT_QUERY, Long.class, query);
+        }
+        return SearchPageDTO.of(results, total[0], pageOffset, pageLimit);
+    }
+
+    private static String highlight(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(String.valueOf(START_SEL), "<mark>")
+                .replace(String.valueOf(STOP_SEL), "</mark>");
+    }
+}
@@ -0,0 +1,22 @@
+package com.tradinginfo.backend.service.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+public interface LessonSearchIndex {
+    void index(String path, String title, String content, Map<String, Object> frontmatter);
+    void remove(String path);
+    void removeFolder(String folder);
+    void rebuild();
+    Result search(String query, int offset, int limit);
+    Result search(String query, int offset, int limit, Predicate<String> pathFilter);
+
+    record Hit(String path, double score) {
+    }
+
+    record Result(int total, List<Hit> hits) {
+
+        public static final Result EMPTY = new Result(0, List.of());
+    }
+}
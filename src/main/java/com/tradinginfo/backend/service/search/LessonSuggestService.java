@@ -0,0 +1,11 @@
+package com.tradinginfo.backend.service.search;
+
+import com.tradinginfo.backend.dto.SuggestionDTO;
+
+import java.util.List;
+
+public interface LessonSuggestService {
+    int MAX_LIMIT = 20;
+
+    List<SuggestionDTO> suggest(String prefix, Integer limit);
+}
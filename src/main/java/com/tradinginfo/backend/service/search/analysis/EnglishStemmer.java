@@ -0,0 +1,229 @@
+package com.tradinginfo.backend.service.search.analysis;
+
+/**
+ * The original Porter stemming algorithm (M.F. Porter, 1980) for English terms,
+ * which trading lessons mix into otherwise Russian text. Expects lower-case ASCII.
+ */
+public final class EnglishStemmer {
+
+    private static final String[][] STEP_2 = {
+            {"ational", "ate"}, {"tional", "tion"}, {"enci", "ence"}, {"anci", "ance"}, {"izer", "ize"},
+            {"bli", "ble"}, {"alli", "al"}, {"entli", "ent"}, {"eli", "e"}, {"ousli", "ous"},
+            {"ization", "ize"}, {"ation", "ate"}, {"ator", "ate"}, {"alism", "al"}, {"iveness", "ive"},
+            {"fulness", "ful"}, {"ousness", "ous"}, {"aliti", "al"}, {"iviti", "ive"}, {"biliti", "ble"},
+            {"logi", "log"}};
+    private static final String[][] STEP_3 = {
+            {"icate", "ic"}, {"ative", ""}, {"alize", "al"}, {"iciti", "ic"}, {"ical", "ic"},
+            {"ful", ""}, {"ness", ""}};
+    private static final String[] STEP_4 = {
+            "al", "ance", "ence", "er", "ic", "able", "ible", "ant", "ement", "ment", "ent",
+            "ion", "ou", "ism", "ate", "iti", "ous", "ive", "ize"};
+
+    private final char[] b;
+    private int k;
+    private int j;
+
+    private EnglishStemmer(String word) {
+        this.b = word.toCharArray();
+        this.k = b.length - 1;
+    }
+
+    public static String stem(String word) {
+        if (word.length() <= 2) {
+            return word;
+        }
+        EnglishStemmer stemmer = new EnglishStemmer(word);
+        stemmer.step1ab();
+        if (stemmer.k > 0) {
+            stemmer.step1c();
+            stemmer.step2();
+            stemmer.step3();
+            stemmer.step4();
+            stemmer.step5();
+        }
+        return new String(stemmer.b, 0, stemmer.k + 1);
+    }
+
+    private boolean isConsonant(int i) {
+        return switch (b[i]) {
+            case 'a', 'e', 'i', 'o', 'u' -> false;
+            case 'y' -> i == 0 || !isConsonant(i - 1);
+            default -> true;
+        };
+    }
+
+    /** Number of VC sequences in b[0..j]. */
+    private int measure() {
+        int n = 0;
+        int i = 0;
+        while (true) {
+            if (i > j) {
+                return n;
+            }
+            if (!isConsonant(i)) {
+                break;
+            }
+            i++;
+        }
+        i++;
+        while (true) {
+            while (true) {
+                if (i > j) {
+                    return n;
+                }
+                if (isConsonant(i)) {
+                    break;
+                }
+                i++;
+            }
+            i++;
+            n++;
+            while (true) {
+                if (i > j) {
+                    return n;
+                }
+                if (!isConsonant(i)) {
+                    break;
+                }
+                i++;
+            }
+            i++;
+        }
+    }
+
+    private boolean vowelInStem() {
+        for (int i = 0; i <= j; i++) {
+            if (!isConsonant(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean doubleConsonant(int i) {
+        return i >= 1 && b[i] == b[i - 1] && isConsonant(i);
+    }
+
+    /** consonant-vowel-consonant ending, where the last consonant is not w, x or y. */
+    private boolean cvc(int i) {
+        if (i < 2 || !isConsonant(i) || isConsonant(i - 1) || !isConsonant(i - 2)) {
+            return false;
+        }
+        char c = b[i];
+        return c != 'w' && c != 'x' && c != 'y';
+    }
+
+    private boolean ends(String s) {
+        int length = s.length();
+        int offset = k - length + 1;
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (b[offset + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        j = k - length;
+        return true;
+    }
+
+    private void setTo(String s) {
+        int length = s.length();
+        int offset = j + 1;
+        for (int i = 0; i < length; i++) {
+            b[offset + i] = s.charAt(i);
+        }
+        k = j + length;
+    }
+
+    private void replaceIfMeasured(String s) {
+        if (measure() > 0) {
+            setTo(s);
+        }
+    }
+
+    private void step1ab() {
+        if (b[k] == 's') {
+            if (ends("sses")) {
+                k -= 2;
+            } else if (ends("ies")) {
+                setTo("i");
+            } else if (b[k - 1] != 's') {
+                k--;
+            }
+        }
+        if (ends("eed")) {
+            if (measure() > 0) {
+                k--;
+            }
+        } else if ((ends("ed") || ends("ing")) && vowelInStem()) {
+            k = j;
+            if (ends("at")) {
+                setTo("ate");
+            } else if (ends("bl")) {
+                setTo("ble");
+            } else if (ends("iz")) {
+                setTo("ize");
+            } else if (doubleConsonant(k)) {
+                char c = b[k];
+                if (c != 'l' && c != 's' && c != 'z') {
+                    k--;
+                }
+            } else if (measure() == 1 && cvc(k)) {
+                setTo("e");
+            }
+        }
+    }
+
+    private void step1c() {
+        if (ends("y") && vowelInStem()) {
+            b[k] = 'i';
+        }
+    }
+
+    private void step2() {
+        for (String[] rule : STEP_2) {
+            if (ends(rule[0])) {
+                replaceIfMeasured(rule[1]);
+                return;
+            }
+        }
+    }
+
+    private void step3() {
+        for (String[] rule : STEP_3) {
+            if (ends(rule[0])) {
+                replaceIfMeasured(rule[1]);
+                return;
+            }
+        }
+    }
+
+    private void step4() {
+        for (String suffix : STEP_4) {
+            if (ends(suffix)) {
+                if (suffix.equals("ion") && (j < 0 || (b[j] != 's' && b[j] != 't'))) {
+                    return;
+                }
+                if (measure() > 1) {
+                    k = j;
+                }
+                return;
+            }
+        }
+    }
+
+    private void step5() {
+        j = k;
+        if (b[k] == 'e') {
+            int m = measure();
+            if (m > 1 || (m == 1 && !cvc(k - 1))) {
+                k--;
+            }
+        }
+        if (b[k] == 'l' && doubleConsonant(k) && measure() > 1) {
+            k--;
+        }
+    }
+}
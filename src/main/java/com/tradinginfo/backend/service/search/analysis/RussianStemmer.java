@@ -0,0 +1,159 @@
+package com.tradinginfo.backend.service.search.analysis;
+
+/**
+ * Port of the Snowball Russian stemming algorithm
+ * (https://snowballstem.org/algorithms/russian/stemmer.html).
+ * Expects lower-case input with 'ё' already folded to 'е'.
+ */
+public final class RussianStemmer {
+
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ившись", "ывшись", "ивши", "ывши", "ив", "ыв"};
+    private static final String[] ADJECTIVE = {
+            "ими", "ыми", "его", "ого", "ему", "ому",
+            "ее", "ие", "ые", "ое", "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом",
+            "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"};
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] VERB_1 = {
+            "ете", "йте", "ешь", "нно",
+            "ла", "на", "ли", "ем", "ло", "но", "ет", "ют", "ны", "ть", "й", "л", "н"};
+    private static final String[] VERB_2 = {
+            "ейте", "уйте",
+            "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло", "ено", "ует", "уют", "ены", "ить", "ыть", "ишь",
+            "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит", "ыт", "ую", "ю"};
+    private static final String[] NOUN = {
+            "иями", "ями", "ами", "ией", "иям", "ием", "иях",
+            "ев", "ов", "ие", "ье", "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья",
+            "а", "е", "и", "й", "о", "у", "ы", "ь", "ю", "я"};
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    private RussianStemmer() {
+    }
+
+    public static String stem(String word) {
+        int rv = regionAfterFirstVowel(word);
+        if (rv >= word.length()) {
+            return word;
+        }
+        int r2 = nextRegion(word, nextRegion(word, 0));
+
+        StringBuilder buffer = new StringBuilder(word);
+
+        // Step 1
+        if (!removeGroupedEnding(buffer, rv, PERFECTIVE_GERUND_1, PERFECTIVE_GERUND_2)) {
+            removeEnding(buffer, rv, REFLEXIVE);
+            if (removeEnding(buffer, rv, ADJECTIVE)) {
+                removeGroupedEnding(buffer, rv, PARTICIPLE_1, PARTICIPLE_2);
+            } else if (!removeGroupedEnding(buffer, rv, VERB_1, VERB_2)) {
+                removeEnding(buffer, rv, NOUN);
+            }
+        }
+
+        // Step 2
+        if (endsWith(buffer, rv, "и")) {
+            buffer.setLength(buffer.length() - 1);
+        }
+
+        // Step 3
+        removeEnding(buffer, r2, DERIVATIONAL);
+
+        // Step 4
+        if (endsWith(buffer, rv, "нн")) {
+            buffer.setLength(buffer.length() - 1);
+        } else if (removeEnding(buffer, rv, SUPERLATIVE)) {
+            if (endsWith(buffer, rv, "нн")) {
+                buffer.setLength(buffer.length() - 1);
+            }
+        } else if (endsWith(buffer, rv, "ь")) {
+            buffer.setLength(buffer.length() - 1);
+        }
+
+        return buffer.toString();
+    }
+
+    /**
+     * Removes the longest ending of group 1 (which must follow 'а' or 'я') or group 2.
+     * As in Snowball's among, only the longest match is considered.
+     */
+    private static boolean removeGroupedEnding(StringBuilder buffer, int limit, String[] group1, String[] group2) {
+        String longest1 = longestEnding(buffer, limit, group1);
+        String longest2 = longestEnding(buffer, limit, group2);
+
+        if (longest2 != null && (longest1 == null || longest2.length() >= longest1.length())) {
+            buffer.setLength(buffer.length() - longest2.length());
+            return true;
+        }
+        if (longest1 != null) {
+            int precedingIndex = buffer.length() - longest1.length() - 1;
+            if (precedingIndex >= limit) {
+                char preceding = buffer.charAt(precedingIndex);
+                if (preceding == 'а' || preceding == 'я') {
+                    buffer.setLength(buffer.length() - longest1.length());
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean removeEnding(StringBuilder buffer, int limit, String[] endings) {
+        String longest = longestEnding(buffer, limit, endings);
+        if (longest == null) {
+            return false;
+        }
+        buffer.setLength(buffer.length() - longest.length());
+        return true;
+    }
+
+    private static String longestEnding(StringBuilder buffer, int limit, String[] endings) {
+        String longest = null;
+        for (String ending : endings) {
+            if (endsWith(buffer, limit, ending) && (longest == null || ending.length() > longest.length())) {
+                longest = ending;
+            }
+        }
+        return longest;
+    }
+
+    private static boolean endsWith(StringBuilder buffer, int limit, String ending) {
+        int start = buffer.length() - ending.length();
+        if (start < limit || start < 0) {
+            return false;
+        }
+        for (int i = 0; i < ending.length(); i++) {
+            if (buffer.charAt(start + i) != ending.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** R1/R2: position after the first non-vowel that follows a vowel at or after {@code from}. */
+    private static int nextRegion(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    /** RV: position just after the first vowel. */
+    private static int regionAfterFirstVowel(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,96 @@
+package com.tradinginfo.backend.service.search.analysis;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cuts a short, HTML-escaped excerpt out of lesson markdown around the densest
+ * cluster of query terms and wraps the matching words in {@code <mark>}.
+ * Words are matched through {@link TextAnalyzer}, so inflected forms count.
+ */
+public final class SnippetBuilder {
+
+    private static final String MARKDOWN_NOISE = "#*_`>[]|~=";
+    private static final String ELLIPSIS = "…";
+
+    private SnippetBuilder() {
+    }
+
+    public static String build(String text, Set<String> queryTerms, int windowWords) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        List<int[]> words = new ArrayList<>();
+        List<Boolean> matches = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = TextAnalyzer.normalize(text.subSequence(start, i));
+                words.add(new int[]{start, i});
+                matches.add(term != null && queryTerms.contains(term));
+                start = -1;
+            }
+        }
+        if (words.isEmpty()) {
+            return "";
+        }
+
+        // Slide a fixed-size window over the words and keep the one with the most matches
+        int window = Math.min(windowWords, words.size());
+        int matched = 0;
+        for (int i = 0; i < window; i++) {
+            matched += matches.get(i) ? 1 : 0;
+        }
+        int bestStart = 0;
+        int bestMatched = matched;
+        for (int i = window; i < words.size(); i++) {
+            matched += (matches.get(i) ? 1 : 0) - (matches.get(i - window) ? 1 : 0);
+            if (matched > bestMatched) {
+                bestMatched = matched;
+                bestStart = i - window + 1;
+            }
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (bestStart > 0) {
+            snippet.append(ELLIPSIS);
+        }
+        for (int i = bestStart; i < bestStart + window; i++) {
+            if (i > bestStart) {
+                appendGap(snippet, text, words.get(i - 1)[1], words.get(i)[0]);
+            }
+            String word = HtmlUtils.htmlEscape(text.substring(words.get(i)[0], words.get(i)[1]));
+            if (matches.get(i)) {
+                snippet.append("<mark>").append(word).append("</mark>");
+            } else {
+                snippet.append(word);
+            }
+        }
+        if (bestStart + window < words.size()) {
+            snippet.append(ELLIPSIS);
+        }
+        return snippet.toString();
+    }
+
+    private static void appendGap(StringBuilder snippet, String text, int from, int to) {
+        StringBuilder gap = new StringBuilder();
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (gap.isEmpty() || gap.charAt(gap.length() - 1) != ' ') {
+                    gap.append(' ');
+                }
+            } else if (MARKDOWN_NOISE.indexOf(c) < 0) {
+                gap.append(c);
+            }
+        }
+        snippet.append(gap.isEmpty() ? " " : HtmlUtils.htmlEscape(gap.toString()));
+    }
+}
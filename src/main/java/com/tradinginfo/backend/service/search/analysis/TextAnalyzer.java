@@ -0,0 +1,93 @@
+package com.tradinginfo.backend.service.search.analysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Splits lesson text into normalized terms: lower-cased, 'ё' folded to 'е',
+ * stop words dropped and every word reduced to its Russian or English stem.
+ * Indexing and querying must go through the same analyzer.
+ */
+public final class TextAnalyzer {
+
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // Russian
+            "и", "в", "во", "не", "что", "он", "на", "я", "с", "со", "как", "а", "то", "все", "она", "так",
+            "его", "но", "да", "ты", "к", "у", "же", "вы", "за", "бы", "по", "только", "ее", "мне", "было",
+            "вот", "от", "меня", "еще", "нет", "о", "из", "ему", "теперь", "когда", "даже", "ну", "ли",
+            "если", "уже", "или", "ни", "быть", "был", "него", "до", "вас", "нибудь", "уж", "вам", "там",
+            "потом", "себя", "ей", "может", "они", "тут", "где", "есть", "надо", "ней", "для", "мы", "тебя",
+            "их", "чем", "была", "сам", "чтоб", "без", "будто", "чего", "раз", "тоже", "себе", "под", "будет",
+            "ж", "тогда", "кто", "этот", "того", "потому", "этого", "какой", "ним", "здесь", "этом", "один",
+            "мой", "тем", "чтобы", "нее", "были", "куда", "зачем", "всех", "можно", "при", "об", "это",
+            // English
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "will", "with");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (!token.isEmpty()) {
+                String term = normalize(token);
+                if (term != null) {
+                    terms.add(term);
+                }
+                token.setLength(0);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Normalizes a single word the same way {@link #analyze(String)} does, or
+     * returns {@code null} when the word is a stop word or otherwise not indexed.
+     */
+    public static String normalize(CharSequence word) {
+        if (word.length() > MAX_TERM_LENGTH) {
+            return null;
+        }
+
+        StringBuilder folded = new StringBuilder(word.length());
+        boolean cyrillic = false;
+        boolean latin = false;
+        for (int i = 0; i < word.length(); i++) {
+            char c = Character.toLowerCase(word.charAt(i));
+            if (c == 'ё') {
+                c = 'е';
+            }
+            if (Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CYRILLIC) {
+                cyrillic = true;
+            } else if (c >= 'a' && c <= 'z') {
+                latin = true;
+            }
+            folded.append(c);
+        }
+
+        String term = folded.toString();
+        if (STOP_WORDS.contains(term) || (term.length() < 2 && !Character.isDigit(term.charAt(0)))) {
+            return null;
+        }
+        if (cyrillic && !latin) {
+            return RussianStemmer.stem(term);
+        }
+        if (latin && !cyrillic && term.chars().allMatch(ch -> ch >= 'a' && ch <= 'z')) {
+            return EnglishStemmer.stem(term);
+        }
+        return term;
+    }
+}
@@ -0,0 +1,398 @@
+package com.tradinginfo.backend.service.search.impl;
+
+import com.tradinginfo.backend.entity.Lesson;
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.service.search.LessonSearchIndex;
+import com.tradinginfo.backend.service.search.analysis.TextAnalyzer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index over lesson title, body and frontmatter, ranked
+ * with BM25F: per-field term frequencies are length-normalized, the title
+ * field is boosted, and the combined frequency is saturated once per term.
+ *
+ * Postings are packed into growable int arrays as (docId, titleTf << 16 | bodyTf)
+ * pairs. Removed or replaced documents are tombstoned and dropped from the
+ * postings in bulk once enough of them accumulate.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory", matchIfMissing = true)
+public class LessonSearchIndexImpl implements LessonSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B_TITLE = 0.5;
+    private static final double B_BODY = 0.75;
+    private static final int REBUILD_PAGE_SIZE = 50;
+    private static final int MAX_FIELD_TF = 0xFFFF;
+    private static final double COMPACTION_RATIO = 0.25;
+
+    private final LessonRepository lessonRepository;
+
+    @Value("${app.search.title-boost:3.0}")
+    private double titleBoost;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docIdsByPath = new HashMap<>();
+    private final List<String> paths = new ArrayList<>();
+    private int[] titleLengths = new int[64];
+    private int[] bodyLengths = new int[64];
+    private final BitSet deleted = new BitSet();
+    private long totalTitleLength;
+    private long totalBodyLength;
+    private volatile boolean built;
+
+    // Updates committed while the first build is still reading the database, replayed once it finishes
+    private final Object pendingLock = new Object();
+    private List<Runnable> pendingUpdates = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            ensureBuilt();
+        } catch (RuntimeException e) {
+            log.warn("Search index warm-up failed, it will be built on first search", e);
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            clear();
+            int indexed = 0;
+            Page<Lesson> page = lessonRepository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+            while (true) {
+                for (Lesson lesson : page) {
+                    if (!Boolean.TRUE.equals(lesson.getIsFolder())) {
+                        addDocument(lesson.getPath(), lesson.getTitle(), lesson.getContent(), lesson.getFrontmatter());
+                        indexed++;
+                    }
+                }
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = lessonRepository.findAll(page.nextPageable());
+            }
+            List<Runnable> replay;
+            synchronized (pendingLock) {
+                replay = pendingUpdates;
+                pendingUpdates = new ArrayList<>();
+                built = true;
+            }
+            // Still under the write lock, so later updates apply after these; each one is idempotent
+            replay.forEach(Runnable::run);
+            log.info("Search index built: {} lessons, {} terms, {} updates replayed", indexed, postings.size(), replay.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(String path, String title, String content, Map<String, Object> frontmatter) {
+        if (deferUntilBuilt(() -> index(path, title, content, frontmatter))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(path);
+            addDocument(path, title, content, frontmatter);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String path) {
+        if (deferUntilBuilt(() -> remove(path))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(path);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeFolder(String folder) {
+        if (deferUntilBuilt(() -> removeFolder(folder))) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<String> folderPaths = docIdsByPath.keySet().stream()
+                    .filter(path -> folder.equals(parentOf(path)))
+                    .toList();
+            folderPaths.forEach(this::removeDocument);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Result search(String query, int offset, int limit) {
+        return search(query, offset, limit, path -> true);
+    }
+
+    @Override
+    public Result search(String query, int offset, int limit, Predicate<String> pathFilter) {
+        ensureBuilt();
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return Result.EMPTY;
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = docIdsByPath.size();
+            if (documentCount == 0) {
+                return Result.EMPTY;
+            }
+            double avgTitleLength = Math.max(1.0, (double) totalTitleLength / documentCount);
+            double avgBodyLength = Math.max(1.0, (double) totalBodyLength / documentCount);
+
+            double[] scores = new double[paths.size()];
+            BitSet matched = new BitSet(paths.size());
+
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int documentFrequency = termPostings.liveCount(deleted);
+                if (documentFrequency == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+                int[] data = termPostings.data;
+                for (int i = 0; i < termPostings.size; i += 2) {
+                    int docId = data[i];
+                    if (deleted.get(docId)) {
+                        continue;
+                    }
+                    int titleTf = data[i + 1] >>> 16;
+                    int bodyTf = data[i + 1] & MAX_FIELD_TF;
+
+                    double weightedTf = titleBoost * titleTf / (1 - B_TITLE + B_TITLE * titleLengths[docId] / avgTitleLength)
+                            + bodyTf / (1 - B_BODY + B_BODY * bodyLengths[docId] / avgBodyLength);
+                    scores[docId] += idf * weightedTf * (K1 + 1) / (weightedTf + K1);
+                    matched.set(docId);
+                }
+            }
+
+            // Filtered documents are dropped before ranking so the page and the total agree
+            for (int docId = matched.nextSetBit(0); docId >= 0; docId = matched.nextSetBit(docId + 1)) {
+                if (!pathFilter.test(paths.get(docId))) {
+                    matched.clear(docId);
+                }
+            }
+
+            // Only the first offset + limit hits are ever ordered; the rest are just counted
+            Comparator<Integer> ranking = Comparator.comparingDouble((Integer docId) -> scores[docId])
+                    .thenComparing(docId -> paths.get(docId), Comparator.reverseOrder());
+            int needed = offset + limit;
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(needed, matched.cardinality()) + 1, ranking);
+            for (int docId = matched.nextSetBit(0); docId >= 0; docId = matched.nextSetBit(docId + 1)) {
+                top.offer(docId);
+                if (top.size() > needed) {
+                    top.poll();
+                }
+            }
+
+            List<Integer> ranked = new ArrayList<>(top);
+            ranked.sort(ranking.reversed());
+            List<Hit> hits = ranked.stream()
+                    .skip(offset)
+                    .map(docId -> new Hit(paths.get(docId), scores[docId]))
+                    .toList();
+            return new Result(matched.cardinality(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String parentOf(String path) {
+        int slash = path.lastIndexOf('/');
+        return slash < 0 ? "" : path.substring(0, slash);
+    }
+
+    private boolean deferUntilBuilt(Runnable update) {
+        // The build may have read the database before this change committed, so it is queued rather than dropped
+        synchronized (pendingLock) {
+            if (!built) {
+                pendingUpdates.add(update);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (this) {
+                if (!built) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private void addDocument(String path, String title, String content, Map<String, Object> frontmatter) {
+        List<String> titleTerms = TextAnalyzer.analyze(title);
+        List<String> bodyTerms = new ArrayList<>(TextAnalyzer.analyze(content));
+        if (frontmatter != null) {
+            frontmatter.values().forEach(value -> bodyTerms.addAll(TextAnalyzer.analyze(String.valueOf(value))));
+        }
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        titleTerms.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[0]++);
+        bodyTerms.forEach(term -> frequencies.computeIfAbsent(term, t -> new int[2])[1]++);
+
+        int docId = paths.size();
+        paths.add(path);
+        docIdsByPath.put(path, docId);
+        ensureCapacity(docId + 1);
+        titleLengths[docId] = titleTerms.size();
+        bodyLengths[docId] = bodyTerms.size();
+        totalTitleLength += titleTerms.size();
+        totalBodyLength += bodyTerms.size();
+
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings())
+                .add(docId, Math.min(tf[0], MAX_FIELD_TF >> 1), Math.min(tf[1], MAX_FIELD_TF)));
+    }
+
+    private void removeDocument(String path) {
+        Integer docId = docIdsByPath.remove(path);
+        if (docId == null) {
+            return;
+        }
+        deleted.set(docId);
+        totalTitleLength -= titleLengths[docId];
+        totalBodyLength -= bodyLengths[docId];
+    }
+
+    private void compactIfNeeded() {
+        int tombstones = deleted.cardinality();
+        if (tombstones == 0 || tombstones < paths.size() * COMPACTION_RATIO) {
+            return;
+        }
+
+        // Renumber live documents densely and drop tombstoned postings
+        int[] remap = new int[paths.size()];
+        List<String> livePaths = new ArrayList<>(docIdsByPath.size());
+        int[] liveTitleLengths = new int[Math.max(64, docIdsByPath.size())];
+        int[] liveBodyLengths = new int[liveTitleLengths.length];
+        for (int docId = 0; docId < paths.size(); docId++) {
+            if (deleted.get(docId)) {
+                remap[docId] = -1;
+                continue;
+            }
+            int newId = livePaths.size();
+            remap[docId] = newId;
+            livePaths.add(paths.get(docId));
+            liveTitleLengths[newId] = titleLengths[docId];
+            liveBodyLengths[newId] = bodyLengths[docId];
+        }
+
+        postings.values().removeIf(termPostings -> termPostings.remap(remap) == 0);
+        paths.clear();
+        paths.addAll(livePaths);
+        titleLengths = liveTitleLengths;
+        bodyLengths = liveBodyLengths;
+        docIdsByPath.clear();
+        for (int docId = 0; docId < paths.size(); docId++) {
+            docIdsByPath.put(paths.get(docId), docId);
+        }
+        deleted.clear();
+        log.debug("Search index compacted: {} tombstones removed", tombstones);
+    }
+
+    private void clear() {
+        postings.clear();
+        docIdsByPath.clear();
+        paths.clear();
+        deleted.clear();
+        titleLengths = new int[64];
+        bodyLengths = new int[64];
+        totalTitleLength = 0;
+        totalBodyLength = 0;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > titleLengths.length) {
+            int capacity = Math.max(size, titleLengths.length * 2);
+            titleLengths = Arrays.copyOf(titleLengths, capacity);
+            bodyLengths = Arrays.copyOf(bodyLengths, capacity);
+        }
+    }
+
+    private static final class Postings {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int docId, int titleTf, int bodyTf) {
+            if (size + 2 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = docId;
+            data[size++] = (titleTf << 16) | bodyTf;
+        }
+
+        int liveCount(BitSet deleted) {
+            int count = 0;
+            for (int i = 0; i < size; i += 2) {
+                if (!deleted.get(data[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        int remap(int[] remap) {
+            int write = 0;
+            for (int read = 0; read < size; read += 2) {
+                int newId = remap[data[read]];
+                if (newId >= 0) {
+                    data[write++] = newId;
+                    data[write++] = data[read + 1];
+                }
+            }
+            size = write;
+            if (data.length > 8 && size < data.length / 4) {
+                data = Arrays.copyOf(data, Math.max(4, size * 2));
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.tradinginfo.backend.service.search.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tradinginfo.backend.dto.SuggestionDTO;
+import com.tradinginfo.backend.repository.LessonHeadings;
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.service.lesson.LessonCatalog;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import com.tradinginfo.backend.service.search.LessonSuggestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Autocomplete over lesson titles and headings. Every word start of every
+ * normalized title/heading is stored as a key in one sorted array, so a
+ * prefix lookup is a binary search followed by a short scan. The array and
+ * the per-prefix result cache are rebuilt whenever the catalog version moves.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LessonSuggestServiceImpl implements LessonSuggestService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int PREFIX_CACHE_SIZE = 10_000;
+
+    private final LessonCatalogService lessonCatalogService;
+    private final LessonRepository lessonRepository;
+
+    @Value("${app.search.suggest-limit:8}")
+    private int defaultLimit;
+
+    private volatile Snapshot snapshot;
+
+    @Override
+    public List<SuggestionDTO> suggest(String prefix, Integer limit) {
+        int effectiveLimit = Math.min(limit != null ? limit : defaultLimit, MAX_LIMIT);
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || effectiveLimit <= 0) {
+            return List.of();
+        }
+        // Keys are cut at MAX_KEY_LENGTH, so a longer prefix could never match one of them
+        if (normalized.length() > MAX_KEY_LENGTH) {
+            normalized = normalized.substring(0, MAX_KEY_LENGTH);
+        }
+
+        Snapshot current = currentSnapshot();
+        List<SuggestionDTO> top = current.prefixCache().get(normalized, current::lookup);
+        return top.size() > effectiveLimit ? top.subList(0, effectiveLimit) : top;
+    }
+
+    private Snapshot currentSnapshot() {
+        LessonCatalog catalog = lessonCatalogService.getCatalog();
+        Snapshot current = snapshot;
+        if (current == null || current.catalogVersion() != catalog.version()) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null || current.catalogVersion() != catalog.version()) {
+                    current = build(catalog);
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Snapshot build(LessonCatalog catalog) {
+        Map<String, List<String>> headingsByPath = new HashMap<>();
+        for (LessonHeadings lessonHeadings : lessonRepository.findAllHeadings()) {
+            headingsByPath.put(lessonHeadings.path(), lessonHeadings.headings());
+        }
+
+        List<SuggestionDTO> entries = new ArrayList<>();
+        List<Key> keys = new ArrayList<>();
+        for (LessonSummary lesson : catalog.entries()) {
+            if (lesson.isFolder()) {
+                continue;
+            }
+            addEntry(new SuggestionDTO(lesson.path(), lesson.title(), null), lesson.title(), entries, keys);
+            for (String heading : headingsByPath.getOrDefault(lesson.path(), List.of())) {
+                addEntry(new SuggestionDTO(lesson.path(), lesson.title(), heading), heading, entries, keys);
+            }
+        }
+        keys.sort(Comparator.comparing(Key::text));
+
+        String[] keyTexts = new String[keys.size()];
+        int[] keyEntries = new int[keys.size()];
+        boolean[] keyLeading = new boolean[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            keyTexts[i] = keys.get(i).text();
+            keyEntries[i] = keys.get(i).entry();
+            keyLeading[i] = keys.get(i).leading();
+        }
+
+        log.debug("Suggest index built for catalog v{}: {} entries, {} keys", catalog.version(), entries.size(), keyTexts.length);
+        return new Snapshot(catalog.version(), keyTexts, keyEntries, keyLeading, entries,
+                Caffeine.newBuilder().maximumSize(PREFIX_CACHE_SIZE).build());
+    }
+
+    private static void addEntry(SuggestionDTO entry, String text, List<SuggestionDTO> entries, List<Key> keys) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        int entryId = entries.size();
+        entries.add(entry);
+        for (int start = 0; start < normalized.length(); start++) {
+            if (start == 0 || normalized.charAt(start - 1) == ' ') {
+                int end = Math.min(normalized.length(), start + MAX_KEY_LENGTH);
+                keys.add(new Key(normalized.substring(start, end), entryId, start == 0));
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c == 'ё') {
+                c = 'е';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private record Key(String text, int entry, boolean leading) {
+    }
+
+    private record Snapshot(long catalogVersion, String[] keys, int[] keyEntries, boolean[] keyLeading, List<SuggestionDTO> entries,
+                            Cache<String, List<SuggestionDTO>> prefixCache) {
+
+        List<SuggestionDTO> lookup(String prefix) {
+            int from = Arrays.binarySearch(keys, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+
+            // Best match per lesson: titles before headings, then matches at the very start, then shorter text
+            Map<String, Candidate> best = new HashMap<>();
+            for (int i = from; i < keys.length && keys[i].startsWith(prefix); i++) {
+                SuggestionDTO entry = entries.get(keyEntries[i]);
+                String matchedText = entry.heading() != null ? entry.heading() : entry.title();
+                Candidate candidate = new Candidate(entry, entry.heading() != null, !keyLeading[i], matchedText.length());
+                best.merge(entry.path(), candidate, (a, b) -> Candidate.ORDER.compare(a, b) <= 0 ? a : b);
+            }
+
+            return best.values().stream()
+                    .sorted(Candidate.ORDER)
+                    .limit(MAX_LIMIT)
+                    .map(Candidate::entry)
+                    .toList();
+        }
+    }
+
+    private record Candidate(SuggestionDTO entry, boolean heading, boolean inner, int length) {
+
+        static final Comparator<Candidate> ORDER = Comparator.comparing(Candidate::heading)
+                .thenComparing(Candidate::inner)
+                .thenComparingInt(Candidate::length)
+                .thenComparing(candidate -> candidate.entry().path());
+    }
+}
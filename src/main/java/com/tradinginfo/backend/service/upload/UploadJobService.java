@@ -0,0 +1,14 @@
+package com.tradinginfo.backend.service.upload;
+
+import com.tradinginfo.backend.dto.UploadJobDTO;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public interface UploadJobService {
+    UploadJobDTO submit(MultipartFile file, String targetFolder, Long telegramId, Boolean removeMissing) throws IOException;
+    Optional<UploadJobDTO> getJob(String id);
+    Optional<SseEmitter> subscribe(String id);
+}
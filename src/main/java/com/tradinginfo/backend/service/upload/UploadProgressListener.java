@@ -0,0 +1,20 @@
+package com.tradinginfo.backend.service.upload;
+
+/**
+ * Receives progress from a running bulk upload. Callbacks arrive on the
+ * thread doing the upload, inside its transaction.
+ */
+public interface UploadProgressListener {
+
+    UploadProgressListener NONE = new UploadProgressListener() {
+    };
+
+    default void phase(String phase) {
+    }
+
+    default void lessonsFound(int total) {
+    }
+
+    default void progress(int processed, int errors) {
+    }
+}
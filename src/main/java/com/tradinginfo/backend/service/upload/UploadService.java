@@ -1,5 +1,6 @@
 package com.tradinginfo.backend.service.upload;
 
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Map;
@@ -8,6 +9,10 @@ public interface UploadService {
 
     // Lesson upload methods
     Map<String, Object> uploadLessons(MultipartFile file, String targetFolder, Long telegramId);
+    // removeMissing: delete folder lessons the archive no longer contains; null falls back to app.upload.remove-missing-lessons
+    Map<String, Object> uploadLessons(MultipartFile file, String targetFolder, Long telegramId, Boolean removeMissing);
+    Map<String, Object> uploadLessons(InputStreamSource archive, String targetFolder, Long telegramId, Boolean removeMissing,
+                                      UploadProgressListener progress);
     Map<String, Object> uploadSingleLesson(MultipartFile file, String targetFolder, Long telegramId);
 
     // Deletion methods
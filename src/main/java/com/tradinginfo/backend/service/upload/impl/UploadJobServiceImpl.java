@@ -0,0 +1,350 @@
+package com.tradinginfo.backend.service.upload.impl;
+
+import com.tradinginfo.backend.dto.UploadJobDTO;
+import com.tradinginfo.backend.entity.UploadJob;
+import com.tradinginfo.backend.repository.UploadJobRepository;
+import com.tradinginfo.backend.service.upload.UploadJobService;
+import com.tradinginfo.backend.service.upload.UploadProgressListener;
+import com.tradinginfo.backend.service.upload.UploadService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background queue for bulk lesson uploads. The request thread only saves the
+ * archive under {@code app.upload.jobs.path}, which is kept outside the
+ * publicly served upload directory, and records the job; a small
+ * bounded pool runs the ingest and reports progress to the job row and to
+ * any Server-Sent Events subscribers.
+ *
+ * Jobs that were queued or running when the application stopped are picked
+ * up again at startup: the ingest of an interrupted job was rolled back with
+ * its transaction, so it is simply run again. The queue capacity only limits
+ * new submissions; resumed jobs were already accepted and are never rejected.
+ */
+@Service
+@Slf4j
+public class UploadJobServiceImpl implements UploadJobService {
+
+    private static final String EVENT_PROGRESS = "progress";
+    private static final String EVENT_COMPLETE = "complete";
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final UploadJobRepository uploadJobRepository;
+    private final UploadService uploadService;
+    private final TransactionTemplate jobTransaction;
+    private final Path jobsRoot;
+    private final Duration sseTimeout;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+
+    // Jobs currently queued or running in this process; their rows are only written on phase changes
+    private final Map<String, UploadJob> activeJobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public UploadJobServiceImpl(UploadJobRepository uploadJobRepository,
+                                UploadService uploadService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.upload.jobs.path:upload-jobs/}") String jobsPath,
+                                @Value("${app.upload.jobs.workers:1}") int workers,
+                                @Value("${app.upload.jobs.queue-capacity:16}") int queueCapacity,
+                                @Value("${app.upload.jobs.sse-timeout:30m}") Duration sseTimeout) {
+        this.uploadJobRepository = uploadJobRepository;
+        this.uploadService = uploadService;
+        // Progress must be visible while the ingest transaction on the same thread is still open
+        this.jobTransaction = new TransactionTemplate(transactionManager);
+        this.jobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jobsRoot = Paths.get(jobsPath).toAbsolutePath().normalize();
+        this.sseTimeout = sseTimeout;
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> Thread.ofPlatform().daemon().name("upload-job-" + threadNumber.incrementAndGet()).unstarted(runnable),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Queued jobs never start and running ones are interrupted; run() leaves both in the database with their
+        // archives, so they resume on the next start. Waiting keeps the repository available until workers return.
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Upload jobs did not stop within {}", SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() {
+        List<UploadJob> pending = uploadJobRepository.findByStatusInOrderByCreatedAtAsc(
+                List.of(UploadJob.Status.QUEUED, UploadJob.Status.RUNNING));
+        for (UploadJob job : pending) {
+            if (job.getArchivePath() == null || !Files.exists(Paths.get(job.getArchivePath()))) {
+                job.setStatus(UploadJob.Status.FAILED);
+                job.setErrorMessage("Archive is no longer available");
+                job.setFinishedAt(LocalDateTime.now());
+                uploadJobRepository.save(job);
+                continue;
+            }
+            job.setStatus(UploadJob.Status.QUEUED);
+            job.setPhase(null);
+            uploadJobRepository.save(job);
+            enqueue(job, false);
+        }
+        if (!pending.isEmpty()) {
+            log.info("Resumed {} pending upload jobs", pending.size());
+        }
+    }
+
+    @Override
+    public UploadJobDTO submit(MultipartFile file, String targetFolder, Long telegramId, Boolean removeMissing) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Files.createDirectories(jobsRoot);
+        Path archive = jobsRoot.resolve(id + ".zip");
+        file.transferTo(archive);
+
+        UploadJob job = new UploadJob();
+        job.setId(id);
+        job.setTargetFolder(targetFolder);
+        job.setTelegramId(telegramId);
+        job.setRemoveMissing(removeMissing);
+        job.setOriginalFilename(file.getOriginalFilename());
+        job.setArchivePath(archive.toString());
+        uploadJobRepository.save(job);
+
+        enqueue(job, true);
+        log.info("Queued upload job {} for folder {}", id, targetFolder);
+        return snapshot(job);
+    }
+
+    @Override
+    public Optional<UploadJobDTO> getJob(String id) {
+        UploadJob active = activeJobs.get(id);
+        if (active != null) {
+            return Optional.of(snapshot(active));
+        }
+        return uploadJobRepository.findById(id).map(UploadJobDTO::of);
+    }
+
+    @Override
+    public Optional<SseEmitter> subscribe(String id) {
+        Optional<UploadJobDTO> current = getJob(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        if (current.get().status().isFinished()) {
+            send(emitter, EVENT_COMPLETE, current.get());
+            emitter.complete();
+            return Optional.of(emitter);
+        }
+
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(id, key -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        send(emitter, EVENT_PROGRESS, current.get());
+
+        // The job may have finished between the status read and the registration
+        if (!activeJobs.containsKey(id)) {
+            getJob(id).filter(job -> job.status().isFinished()).ifPresent(job -> {
+                send(emitter, EVENT_COMPLETE, job);
+                emitter.complete();
+            });
+        }
+        return Optional.of(emitter);
+    }
+
+    private synchronized void enqueue(UploadJob job, boolean limited) {
+        activeJobs.put(job.getId(), job);
+        if (limited && executor.getQueue().size() >= queueCapacity) {
+            log.warn("Upload queue is full, rejecting job {}", job.getId());
+            finish(job, UploadJob.Status.FAILED, null, "Upload queue is full, try again later");
+            return;
+        }
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            // Only happens while shutting down; the job stays QUEUED with its archive and resumes on the next start
+            activeJobs.remove(job.getId());
+            log.warn("Upload queue is shut down, job {} will resume on the next start", job.getId());
+        }
+    }
+
+    private void run(UploadJob job) {
+        synchronized (job) {
+            job.setStatus(UploadJob.Status.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+        }
+        persist(job);
+        publish(job);
+
+        try {
+            Map<String, Object> result = uploadService.uploadLessons(
+                    new FileSystemResource(Paths.get(job.getArchivePath())), job.getTargetFolder(), job.getTelegramId(),
+                    job.getRemoveMissing(), new JobProgressListener(job));
+            boolean success = Boolean.TRUE.equals(result.get("success"));
+            if (!success && interruptedByShutdown(job)) {
+                return;
+            }
+            finish(job, success ? UploadJob.Status.COMPLETED : UploadJob.Status.FAILED, result,
+                    success ? null : String.valueOf(result.getOrDefault("error", "Upload failed")));
+        } catch (Exception e) {
+            if (interruptedByShutdown(job)) {
+                return;
+            }
+            log.error("Upload job {} failed", job.getId(), e);
+            finish(job, UploadJob.Status.FAILED, null, e.getMessage());
+        }
+    }
+
+    private boolean interruptedByShutdown(UploadJob job) {
+        // An ingest interrupted by shutdownNow() fails with an I/O error and its transaction is rolled back.
+        // The job is not marked FAILED: it stays RUNNING with its archive and is run again on the next start.
+        if (!executor.isShutdown()) {
+            return false;
+        }
+        activeJobs.remove(job.getId());
+        log.warn("Upload job {} was interrupted by shutdown and will resume on the next start", job.getId());
+        return true;
+    }
+
+    private void finish(UploadJob job, UploadJob.Status status, Map<String, Object> result, String error) {
+        synchronized (job) {
+            job.setStatus(status);
+            job.setPhase(null);
+            job.setResult(result);
+            job.setErrorMessage(error);
+            job.setFinishedAt(LocalDateTime.now());
+        }
+        try {
+            Files.deleteIfExists(Paths.get(job.getArchivePath()));
+        } catch (IOException e) {
+            log.warn("Failed to delete archive of upload job {}: {}", job.getId(), e.getMessage());
+        }
+        persist(job);
+        activeJobs.remove(job.getId());
+
+        UploadJobDTO dto = snapshot(job);
+        List<SseEmitter> emitters = subscribers.remove(job.getId());
+        if (emitters != null) {
+            emitters.forEach(emitter -> {
+                send(emitter, EVENT_COMPLETE, dto);
+                emitter.complete();
+            });
+        }
+        log.info("Upload job {} finished: {}", job.getId(), status);
+    }
+
+    private void persist(UploadJob job) {
+        UploadJob copy;
+        synchronized (job) {
+            copy = new UploadJob(job.getId(), job.getStatus(), job.getPhase(), job.getTargetFolder(), job.getTelegramId(), job.getRemoveMissing(),
+                    job.getOriginalFilename(), job.getArchivePath(), job.getLessonsTotal(), job.getLessonsProcessed(),
+                    job.getErrorCount(), job.getResult(), truncate(job.getErrorMessage()), job.getCreatedAt(),
+                    job.getStartedAt(), job.getFinishedAt());
+        }
+        try {
+            jobTransaction.executeWithoutResult(status -> uploadJobRepository.save(copy));
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist state of upload job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void publish(UploadJob job) {
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        UploadJobDTO dto = snapshot(job);
+        emitters.forEach(emitter -> send(emitter, EVENT_PROGRESS, dto));
+    }
+
+    private static void send(SseEmitter emitter, String event, UploadJobDTO job) {
+        try {
+            emitter.send(SseEmitter.event().name(event).id(job.id()).data(job));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the completion callback unregisters it
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static UploadJobDTO snapshot(UploadJob job) {
+        synchronized (job) {
+            return UploadJobDTO.of(job);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    private final class JobProgressListener implements UploadProgressListener {
+
+        private final UploadJob job;
+
+        private JobProgressListener(UploadJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void phase(String phase) {
+            synchronized (job) {
+                job.setPhase(phase);
+            }
+            persist(job);
+            publish(job);
+        }
+
+        @Override
+        public void lessonsFound(int total) {
+            synchronized (job) {
+                job.setLessonsTotal(total);
+            }
+            publish(job);
+        }
+
+        @Override
+        public void progress(int processed, int errors) {
+            synchronized (job) {
+                job.setLessonsProcessed(processed);
+                job.setErrorCount(errors);
+            }
+            publish(job);
+        }
+    }
+}
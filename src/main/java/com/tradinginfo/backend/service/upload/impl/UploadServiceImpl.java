@@ -1,30 +1,67 @@
 package com.tradinginfo.backend.service.upload.impl;
 
 import com.tradinginfo.backend.entity.Lesson;
+import com.tradinginfo.backend.entity.LessonRendition;
+import com.tradinginfo.backend.entity.LessonSection;
+import com.tradinginfo.backend.repository.LessonHash;
+import com.tradinginfo.backend.repository.LessonRenditionRepository;
 import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSectionRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.repository.LessonUpsertOutcome;
+import com.tradinginfo.backend.service.image.ImageDerivativeService;
+import com.tradinginfo.backend.service.image.ImageIndexService;
+import com.tradinginfo.backend.service.image.ImageStoreService;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import com.tradinginfo.backend.service.lesson.LessonContentCacheService;
+import com.tradinginfo.backend.service.search.LessonSearchIndex;
 import com.tradinginfo.backend.service.telegram.TelegramBotConfigService;
+import com.tradinginfo.backend.service.upload.UploadProgressListener;
 import com.tradinginfo.backend.service.upload.UploadService;
+import com.tradinginfo.backend.util.ContentEncoding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.Code;
+import org.commonmark.node.HardLineBreak;
+import org.commonmark.node.Heading;
+import org.commonmark.node.Image;
+import org.commonmark.node.Link;
 import org.commonmark.node.Node;
+import org.commonmark.node.Paragraph;
+import org.commonmark.node.SoftLineBreak;
+import org.commonmark.node.Text;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
+import javax.sql.DataSource;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.security.NoSuchAlgorithmException;
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -38,55 +75,162 @@ import java.util.zip.ZipInputStream;
 public class UploadServiceImpl implements UploadService {
 
     private final LessonRepository lessonRepository;
+    private final LessonRenditionRepository lessonRenditionRepository;
+    private final LessonSectionRepository lessonSectionRepository;
     private final Optional<TelegramBotConfigService> telegramBotService;
+    private final LessonCatalogService lessonCatalogService;
+    private final LessonContentCacheService lessonContentCacheService;
+    private final Optional<LessonSearchIndex> lessonSearchIndex;
+    private final ImageIndexService imageIndexService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ImageStoreService imageStoreService;
+    private final ExecutorService lessonRenderExecutor;
+    private final DataSource dataSource;
 
     @Value("${upload.path}")
     private String uploadPath;
 
+    @Value("${app.upload.render-threads:0}")
+    private int renderThreads;
+
+    @Value("${app.upload.write-batch-size:50}")
+    private int writeBatchSize;
+
+    @Value("${app.upload.remove-missing-lessons:false}")
+    private boolean removeMissingLessons;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    private static final String PHASE_READING = "reading";
+    private static final String PHASE_WRITING = "writing";
+    private static final String PHASE_REMOVING = "removing";
+
+    private static final int MAX_INDEXED_HEADING_LEVEL = 3;
+    private static final int SECTION_HEADING_LEVEL = 2;
+    private static final List<String> IMAGE_EXTENSIONS = List.of(".png", ".jpg", ".jpeg", ".gif", ".webp");
+    private static final Pattern LESSON_NUMBER_PATTERN = Pattern.compile("Урок\\s+(\\d+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WIKI_LINK_PATTERN = Pattern.compile("(!?)\\[\\[([^\\[\\]\\n]+)]]");
+
     private final Parser parser = Parser.builder().build();
-    private final HtmlRenderer renderer = HtmlRenderer.builder().build();
+    private final HtmlRenderer renderer = HtmlRenderer.builder()
+            .attributeProviderFactory(context -> this::setImageAttributes)
+            .build();
 
     @Override
     public Map<String, Object> uploadLessons(MultipartFile file, String targetFolder, Long telegramId) {
+        return uploadLessons(file, targetFolder, telegramId, Boolean.FALSE);
+    }
+
+    @Override
+    public Map<String, Object> uploadLessons(MultipartFile file, String targetFolder, Long telegramId, Boolean removeMissing) {
+        return uploadLessons(file, targetFolder, telegramId, removeMissing, UploadProgressListener.NONE);
+    }
+
+    @Override
+    public Map<String, Object> uploadLessons(InputStreamSource archive, String targetFolder, Long telegramId,
+                                             Boolean removeMissing, UploadProgressListener progress) {
         Map<String, Object> result = new HashMap<>();
         List<String> uploadedFiles = new ArrayList<>();
         List<String> errors = new ArrayList<>();
 
         try {
-            Path tempDir = Files.createTempDirectory("upload_");
-            log.info("Created temp directory: {}", tempDir);
-            extractZipFile(file, tempDir);
-            log.info("Extracted ZIP file to temp directory");
-
-            // Log all extracted files
-            Files.walk(tempDir)
-                    .filter(Files::isRegularFile)
-                    .forEach(path -> log.info("Found extracted file: {}", path.getFileName()));
-
-            // Process .md files and copy images
-            List<Path> mdFiles = Files.walk(tempDir)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".md"))
-                    .collect(Collectors.toList());
-
-            List<Path> imageFiles = Files.walk(tempDir)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> {
-                        String fileName = path.getFileName().toString().toLowerCase();
-                        return fileName.endsWith(".png") || fileName.endsWith(".jpg") || fileName.endsWith(".jpeg") || fileName.endsWith(".gif") || fileName.endsWith(".webp");
-                    })
-                    .collect(Collectors.toList());
-
-            log.info("Found {} .md files and {} image files to process", mdFiles.size(), imageFiles.size());
+            // Images go straight to the store as they stream past; lessons wait so they render against stored images
+            progress.phase(PHASE_READING);
+            Set<String> changedImages = new HashSet<>();
+            List<MarkdownEntry> archiveEntries = readZipEntries(archive, targetFolder, changedImages, errors);
+
+            log.info("Read {} .md files from the archive", archiveEntries.size());
+
+            // Unchanged lessons are skipped before any parsing, unless one of the images their last ingest
+            // extracted resolves to a name this upload replaced. Rows missing a content hash or image
+            // references predate them and are rendered again so both get stored.
+            Map<String, LessonHash> existingHashes = lessonRepository.findHashesByParentFolder(targetFolder).stream()
+                    .collect(Collectors.toMap(LessonHash::path, hash -> hash));
+            List<MarkdownEntry> markdownEntries = new ArrayList<>();
+            Set<String> archivePaths = new HashSet<>();
+            int skipped = 0;
+            for (MarkdownEntry entry : archiveEntries) {
+                String lessonPath = targetFolder + "/" + entry.fileName();
+                archivePaths.add(lessonPath);
+                LessonHash existing = existingHashes.get(lessonPath);
+                if (existing != null && calculateHash(entry.content()).equals(existing.fileHash())
+                        && existing.contentHash() != null
+                        && existing.imageEmbeds() != null
+                        && existing.imageEmbeds().stream()
+                                .map(UploadServiceImpl::imageNameOf)
+                                .flatMap(Optional::stream)
+                                .noneMatch(changedImages::contains)) {
+                    skipped++;
+                } else {
+                    markdownEntries.add(entry);
+                }
+            }
 
-            mdFiles.forEach(mdFile -> processMarkdownFile(mdFile, targetFolder, uploadedFiles, errors));
-            imageFiles.forEach(imageFile -> copyImageFile(imageFile, tempDir, targetFolder, errors));
+            progress.phase(PHASE_WRITING);
+            progress.lessonsFound(markdownEntries.size());
+
+            // Parsing, rendering, compression and hashing fan out across cores; writes stay on this thread, in archive order.
+            // Only a small window of lessons is rendered ahead of the writer, so memory does not grow with the archive.
+            int renderWindow = 2 * (renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors());
+            Deque<RenderTask> inFlight = new ArrayDeque<>(renderWindow);
+            int nextEntry = 0;
+            Map<LessonUpsertOutcome, Integer> outcomes = new EnumMap<>(LessonUpsertOutcome.class);
+            List<PreparedLesson> batch = new ArrayList<>(writeBatchSize);
+            while (nextEntry < markdownEntries.size() || !inFlight.isEmpty()) {
+                while (nextEntry < markdownEntries.size() && inFlight.size() < renderWindow) {
+                    MarkdownEntry entry = markdownEntries.get(nextEntry++);
+                    inFlight.addLast(new RenderTask(entry.fileName(), CompletableFuture.supplyAsync(
+                            () -> prepareLesson(targetFolder + "/" + entry.fileName(), entry.content(), targetFolder),
+                            lessonRenderExecutor)));
+                }
+                RenderTask task = inFlight.removeFirst();
+                try {
+                    batch.add(task.lesson().join());
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.error("Failed to process file: {}", task.fileName(), cause);
+                    errors.add(task.fileName() + ": " + cause.getMessage());
+                    progress.progress(uploadedFiles.size(), errors.size());
+                    continue;
+                }
+                if (batch.size() >= writeBatchSize) {
+                    writeBatch(batch, uploadedFiles, outcomes, errors);
+                    batch.clear();
+                    progress.progress(uploadedFiles.size(), errors.size());
+                }
+            }
+            writeBatch(batch, uploadedFiles, outcomes, errors);
+            progress.progress(uploadedFiles.size(), errors.size());
+
+            // Lessons the archive no longer has are only reported, unless the caller asked for them to be removed
+            List<String> missingLessons = archiveEntries.isEmpty() ? List.of() : existingHashes.keySet().stream()
+                    .filter(path -> !archivePaths.contains(path))
+                    .sorted()
+                    .toList();
+            List<String> removedLessons = new ArrayList<>();
+            if (Objects.requireNonNullElse(removeMissing, removeMissingLessons) && !missingLessons.isEmpty()) {
+                progress.phase(PHASE_REMOVING);
+                removedLessons.addAll(missingLessons);
+                removedLessons.forEach(this::removeLesson);
+            }
 
-            deleteDirectory(tempDir);
+            refreshCatalogAfterCommit();
 
             result.put("success", true);
             result.put("filesUploaded", uploadedFiles.size());
             result.put("files", uploadedFiles);
+            result.put("inserted", outcomes.getOrDefault(LessonUpsertOutcome.INSERTED, 0));
+            result.put("updated", outcomes.getOrDefault(LessonUpsertOutcome.UPDATED, 0));
+            result.put("unchanged", outcomes.getOrDefault(LessonUpsertOutcome.UNCHANGED, 0));
+            result.put("skipped", skipped);
+            result.put("changed", outcomes.getOrDefault(LessonUpsertOutcome.INSERTED, 0) + outcomes.getOrDefault(LessonUpsertOutcome.UPDATED, 0));
+            result.put("removed", removedLessons.size());
+            if (!removedLessons.isEmpty()) {
+                result.put("removedLessons", removedLessons);
+            } else if (!missingLessons.isEmpty()) {
+                result.put("removalCandidates", missingLessons);
+            }
             if (!errors.isEmpty()) {
                 result.put("errors", errors);
             }
@@ -95,10 +239,13 @@ public class UploadServiceImpl implements UploadService {
 
         } catch (IOException e) {
             log.error("Upload failed due to IO error", e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             result.put("success", false);
             result.put("error", "File processing error: " + e.getMessage());
         } catch (Exception e) {
             log.error("Upload failed unexpectedly", e);
+            // Nothing of a failed upload is committed, so its result and the database agree
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             result.put("success", false);
             result.put("error", "Unexpected error occurred");
         }
@@ -132,6 +279,7 @@ public class UploadServiceImpl implements UploadService {
                     .orElse(originalFilename);
 
             saveLessonToDatabase(lessonPath, content, targetFolder);
+            refreshCatalogAfterCommit();
 
             result.put("success", true);
             result.put("message", "Lesson uploaded successfully: " + originalFilename);
@@ -159,26 +307,40 @@ public class UploadServiceImpl implements UploadService {
 
     @Override
     public void deleteLessonsFolder(String folder, Long telegramId) {
-        List<Lesson> lessons = lessonRepository.findByParentFolder(folder);
-
         deletePhysicalFolderSafely(folder);
-        lessonRepository.deleteAll(lessons);
-        log.info("Deleted {} lessons from folder: {}", lessons.size(), folder);
-
-        // sendTelegramNotificationForFolderDeletion(folder, lessons.size());
+        imageStoreService.removeFolder(folder);
+        lessonRenditionRepository.deleteByParentFolder(folder);
+        lessonSectionRepository.deleteByParentFolder(folder);
+        int deleted = lessonRepository.deleteByParentFolder(folder);
+        afterCommit(() -> lessonContentCacheService.evictFolder(folder));
+        lessonSearchIndex.ifPresent(index -> afterCommit(() -> index.removeFolder(folder)));
+        refreshCatalogAfterCommit();
+        log.info("Deleted {} lessons from folder: {}", deleted, folder);
+
+        // sendTelegramNotificationForFolderDeletion(folder, deleted);
     }
 
     @Override
     public void deleteSingleLesson(String lessonPath, Long telegramId) {
-        Lesson lesson = lessonRepository.findByPath(lessonPath)
-                .orElseThrow(() -> new IllegalArgumentException("Lesson not found: " + lessonPath));
+        if (!lessonRepository.existsByPath(lessonPath)) {
+            throw new IllegalArgumentException("Lesson not found: " + lessonPath);
+        }
 
         deletePhysicalFileSafely(lessonPath);
-        lessonRepository.delete(lesson);
+        removeLesson(lessonPath);
+        refreshCatalogAfterCommit();
         log.info("Deleted single lesson: {}", lessonPath);
 
     }
 
+    private void removeLesson(String lessonPath) {
+        lessonRenditionRepository.deleteByLessonPath(lessonPath);
+        lessonSectionRepository.deleteByLessonPath(lessonPath);
+        lessonRepository.deleteByPath(lessonPath);
+        afterCommit(() -> lessonContentCacheService.evict(lessonPath));
+        lessonSearchIndex.ifPresent(index -> afterCommit(() -> index.remove(lessonPath)));
+    }
+
     @Override
     public void createFolder(String folderName, Long telegramId) {
         createFolder(folderName, telegramId, false);
@@ -193,8 +355,7 @@ public class UploadServiceImpl implements UploadService {
         String cleanFolderName = folderName.trim();
 
         // Check if folder already exists as a Lesson entity
-        Optional<Lesson> existingFolder = lessonRepository.findByPath(cleanFolderName);
-        if (existingFolder.isPresent()) {
+        if (lessonRepository.existsByPath(cleanFolderName)) {
             throw new IllegalArgumentException("Folder already exists: " + cleanFolderName);
         }
 
@@ -222,6 +383,7 @@ public class UploadServiceImpl implements UploadService {
         folderLesson.setWordCount(0);
 
         lessonRepository.save(folderLesson);
+        refreshCatalogAfterCommit();
 
         log.info("✅ Folder created: {} with subscription required: {}", cleanFolderName, subscriptionRequired);
     }
@@ -240,6 +402,7 @@ public class UploadServiceImpl implements UploadService {
         Lesson folderLesson = folder.get();
         folderLesson.setSubscriptionRequired(subscriptionRequired != null ? subscriptionRequired : false);
         lessonRepository.save(folderLesson);
+        refreshCatalogAfterCommit();
 
         log.info("✅ Updated folder subscription: {} to {}", folderPath, subscriptionRequired);
     }
@@ -247,18 +410,18 @@ public class UploadServiceImpl implements UploadService {
     @Override
     public Map<String, Object> getFileTreeForAdmin() {
         try {
-            List<Lesson> allLessons = lessonRepository.findAll();
+            List<LessonSummary> allLessons = lessonCatalogService.getCatalog().entries();
             List<Map<String, Object>> fileTree = new ArrayList<>();
 
             // Group lessons by folder
-            Map<String, List<Lesson>> lessonsByFolder = allLessons.stream()
-                    .filter(lesson -> lesson.getParentFolder() != null)
-                    .collect(java.util.stream.Collectors.groupingBy(Lesson::getParentFolder));
+            Map<String, List<LessonSummary>> lessonsByFolder = allLessons.stream()
+                    .filter(lesson -> lesson.parentFolder() != null)
+                    .collect(java.util.stream.Collectors.groupingBy(LessonSummary::parentFolder));
 
             // Create folder structure for admin panel
-            for (Map.Entry<String, List<Lesson>> folderEntry : lessonsByFolder.entrySet()) {
+            for (Map.Entry<String, List<LessonSummary>> folderEntry : lessonsByFolder.entrySet()) {
                 String folderName = folderEntry.getKey();
-                List<Lesson> lessons = folderEntry.getValue();
+                List<LessonSummary> lessons = folderEntry.getValue();
 
                 Map<String, Object> folder = new HashMap<>();
                 folder.put("id", "folder_" + Math.abs(folderName.hashCode()));
@@ -267,13 +430,13 @@ public class UploadServiceImpl implements UploadService {
                 folder.put("path", folderName);
 
                 List<Map<String, Object>> children = new ArrayList<>();
-                for (Lesson lesson : lessons) {
+                for (LessonSummary lesson : lessons) {
                     Map<String, Object> file = new HashMap<>();
                     // Only use basic data types, avoid Entity serialization issues
-                    file.put("id", "file_" + lesson.getId());
-                    file.put("name", lesson.getTitle() != null ? lesson.getTitle() : "Unnamed");
+                    file.put("id", "file_" + lesson.id());
+                    file.put("name", lesson.title() != null ? lesson.title() : "Unnamed");
                     file.put("type", "file");
-                    file.put("path", lesson.getPath() != null ? lesson.getPath() : "");
+                    file.put("path", lesson.path() != null ? lesson.path() : "");
                     children.add(file);
                 }
                 folder.put("children", children);
@@ -290,28 +453,179 @@ public class UploadServiceImpl implements UploadService {
     }
 
     private void saveLessonToDatabase(String lessonPath, String content, String targetFolder) {
+        writeLessons(List.of(prepareLesson(lessonPath, content, targetFolder)));
+    }
+
+    private PreparedLesson prepareLesson(String lessonPath, String content, String targetFolder) {
+        // CPU-only: no repository access here, so bulk uploads can run it on worker threads
         Map<String, Object> frontmatter = extractFrontmatter(content);
         String markdownContent = removeFrontmatter(content);
 
         String title = extractTitle(frontmatter, lessonPath);
-        String htmlContent = parseMarkdownToHtml(markdownContent);
-        int wordCount = countWords(markdownContent);
-        Integer lessonNumber = extractLessonNumber(title);
-        String fileHash = calculateHash(content);
-
-        Lesson lesson = lessonRepository.findByPath(lessonPath).orElse(new Lesson());
-        lesson.setPath(lessonPath);
-        lesson.setTitle(title);
-        lesson.setContent(markdownContent);
-        lesson.setHtmlContent(htmlContent);
-        lesson.setFrontmatter(frontmatter);
-        lesson.setWordCount(wordCount);
-        lesson.setParentFolder(targetFolder);
-        lesson.setLessonNumber(lessonNumber);
-        lesson.setFileHash(fileHash);
-        lesson.setUpdatedAt(LocalDateTime.now());
-
-        lessonRepository.save(lesson);
+        Node document = parser.parse(markdownContent);
+        List<String> headings = extractHeadings(document);
+        LinkTargets links = extractLinks(document);
+        rewriteImageDestinations(document, targetFolder);
+        String htmlContent = renderer.render(document);
+
+        return new PreparedLesson(
+                lessonPath,
+                targetFolder,
+                title,
+                markdownContent,
+                htmlContent,
+                frontmatter,
+                headings,
+                links,
+                countWords(markdownContent),
+                extractLessonNumber(title),
+                calculateHash(content),
+                calculateHash(htmlContent),
+                buildRenditions(lessonPath, markdownContent, htmlContent),
+                buildSections(lessonPath, document));
+    }
+
+    private List<LessonUpsertOutcome> writeLessons(List<PreparedLesson> prepared) {
+        List<Lesson> lessons = prepared.stream().map(UploadServiceImpl::toLesson).toList();
+        List<LessonUpsertOutcome> outcomes = lessonRepository.upsertAll(lessons);
+
+        // Renditions and sections only follow lessons whose row actually changed
+        List<PreparedLesson> changed = new ArrayList<>();
+        for (int i = 0; i < prepared.size(); i++) {
+            if (outcomes.get(i) != LessonUpsertOutcome.UNCHANGED) {
+                changed.add(prepared.get(i));
+            }
+        }
+        List<String> changedPaths = changed.stream().map(PreparedLesson::lessonPath).toList();
+        lessonRepository.replaceRenditions(changedPaths, changed.stream().flatMap(lesson -> lesson.renditions().stream()).toList());
+        lessonRepository.replaceSections(changedPaths, changed.stream().flatMap(lesson -> lesson.sections().stream()).toList());
+
+        // Evicting before the commit would let a concurrent read cache the old row again until it expires
+        for (PreparedLesson lesson : changed) {
+            afterCommit(() -> lessonContentCacheService.evict(lesson.lessonPath()));
+            lessonSearchIndex.ifPresent(index -> afterCommit(() ->
+                    index.index(lesson.lessonPath(), lesson.title(), lesson.markdownContent(), lesson.frontmatter())));
+        }
+        return outcomes;
+    }
+
+    private void writeBatch(List<PreparedLesson> batch, List<String> uploadedFiles,
+                            Map<LessonUpsertOutcome, Integer> outcomes, List<String> errors) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Each batch runs under its own JDBC savepoint: a failed statement rolls back just this batch instead of
+        // leaving the upload's transaction aborted and unable to commit. Pending JPA changes are flushed first so
+        // rolling back cannot discard rows Hibernate already considers written.
+        lessonRepository.flush();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            Exception failure = writeUnderSavepoint(connection, batch, uploadedFiles, outcomes);
+            if (failure == null) {
+                return;
+            }
+            if (batch.size() == 1) {
+                log.error("Failed to write lesson {}", batch.get(0).lessonPath(), failure);
+                errors.add(fileNameOf(batch.get(0).lessonPath()) + ": " + failure.getMessage());
+                return;
+            }
+            // Retry row by row so one bad lesson does not take the rest of its batch down with it
+            log.warn("Failed to write a batch of {} lessons, retrying them one at a time", batch.size(), failure);
+            for (PreparedLesson lesson : batch) {
+                Exception lessonFailure = writeUnderSavepoint(connection, List.of(lesson), uploadedFiles, outcomes);
+                if (lessonFailure != null) {
+                    log.error("Failed to write lesson {}", lesson.lessonPath(), lessonFailure);
+                    errors.add(fileNameOf(lesson.lessonPath()) + ": " + lessonFailure.getMessage());
+                }
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private Exception writeUnderSavepoint(Connection connection, List<PreparedLesson> lessons,
+                                          List<String> uploadedFiles, Map<LessonUpsertOutcome, Integer> outcomes) {
+        // Returns null once the lessons are written and recorded, or the failure after rolling back to the savepoint
+        Savepoint savepoint = setSavepoint(connection);
+        List<LessonUpsertOutcome> results;
+        try {
+            results = writeLessons(lessons);
+            connection.releaseSavepoint(savepoint);
+        } catch (Exception e) {
+            rollbackTo(connection, savepoint);
+            return e;
+        }
+
+        for (int i = 0; i < lessons.size(); i++) {
+            String fileName = fileNameOf(lessons.get(i).lessonPath());
+            uploadedFiles.add(fileName);
+            outcomes.merge(results.get(i), 1, Integer::sum);
+            log.info("Uploaded lesson: {} ({})", fileName, results.get(i));
+        }
+        return null;
+    }
+
+    private static Savepoint setSavepoint(Connection connection) {
+        try {
+            return connection.setSavepoint();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot create a savepoint for the lesson batch", e);
+        }
+    }
+
+    private static void rollbackTo(Connection connection, Savepoint savepoint) {
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            // The transaction cannot recover, so the whole upload fails instead of reporting success
+            throw new IllegalStateException("Cannot roll back a failed lesson batch", e);
+        }
+    }
+
+    private static Lesson toLesson(PreparedLesson prepared) {
+        Lesson lesson = new Lesson();
+        lesson.setPath(prepared.lessonPath());
+        lesson.setTitle(prepared.title());
+        lesson.setContent(prepared.markdownContent());
+        lesson.setHtmlContent(prepared.htmlContent());
+        lesson.setFrontmatter(prepared.frontmatter());
+        lesson.setHeadings(prepared.headings());
+        lesson.setOutboundLinks(prepared.links().lessons());
+        lesson.setImageEmbeds(prepared.links().images());
+        lesson.setWordCount(prepared.wordCount());
+        lesson.setParentFolder(prepared.targetFolder());
+        lesson.setLessonNumber(prepared.lessonNumber());
+        lesson.setFileHash(prepared.fileHash());
+        lesson.setContentHash(prepared.contentHash());
+        return lesson;
+    }
+
+    private static String fileNameOf(String lessonPath) {
+        return lessonPath.substring(lessonPath.lastIndexOf('/') + 1);
+    }
+
+    private record PreparedLesson(String lessonPath, String targetFolder, String title, String markdownContent,
+                                  String htmlContent, Map<String, Object> frontmatter, List<String> headings,
+                                  LinkTargets links, int wordCount, Integer lessonNumber, String fileHash,
+                                  String contentHash, List<LessonRendition> renditions, List<LessonSection> sections) {
+    }
+
+    private List<LessonRendition> buildRenditions(String lessonPath, String markdownContent, String htmlContent) {
+        // Compress once per upload so reads can stream the stored bytes as-is
+        List<LessonRendition> renditions = new ArrayList<>();
+        for (LessonRendition.Format format : LessonRendition.Format.values()) {
+            String text = format == LessonRendition.Format.HTML ? htmlContent : markdownContent;
+            byte[] identity = text.getBytes(StandardCharsets.UTF_8);
+            for (ContentEncoding encoding : LessonRendition.STORED_ENCODINGS) {
+                LessonRendition rendition = new LessonRendition();
+                rendition.setLessonPath(lessonPath);
+                rendition.setFormat(format);
+                rendition.setEncoding(encoding);
+                rendition.setData(encoding.encode(identity));
+                renditions.add(rendition);
+            }
+        }
+        return renditions;
     }
 
     private Map<String, Object> extractFrontmatter(String content) {
@@ -320,11 +634,17 @@ public class UploadServiceImpl implements UploadService {
             int endIndex = content.indexOf("---", 3);
             if (endIndex > 0) {
                 String yaml = content.substring(3, endIndex);
+                String listKey = null;
                 for (String line : yaml.split("\n")) {
-                    if (line.contains(":")) {
+                    String trimmed = line.trim();
+                    if (listKey != null && trimmed.startsWith("- ")) {
+                        // Block list item, e.g. "aliases:" followed by "  - Alias"
+                        appendListItem(frontmatter, listKey, trimmed.substring(2).trim());
+                    } else if (line.contains(":")) {
                         String[] parts = line.split(":", 2);
                         if (parts.length == 2) {
                             frontmatter.put(parts[0].trim(), parts[1].trim());
+                            listKey = parts[1].isBlank() ? parts[0].trim() : null;
                         }
                     }
                 }
@@ -333,6 +653,14 @@ public class UploadServiceImpl implements UploadService {
         return frontmatter;
     }
 
+    @SuppressWarnings("unchecked")
+    private void appendListItem(Map<String, Object> frontmatter, String key, String item) {
+        Object current = frontmatter.get(key);
+        List<Object> items = current instanceof List<?> ? (List<Object>) current : new ArrayList<>();
+        items.add(item.replaceAll("^['\"]|['\"]$", ""));
+        frontmatter.put(key, items);
+    }
+
     private String removeFrontmatter(String content) {
         if (content.startsWith("---")) {
             int endIndex = content.indexOf("---", 3);
@@ -351,9 +679,151 @@ public class UploadServiceImpl implements UploadService {
         return fileName.replace(".md", "");
     }
 
-    private String parseMarkdownToHtml(String markdown) {
-        Node document = parser.parse(markdown);
-        return renderer.render(document);
+    private List<String> extractHeadings(Node document) {
+        List<String> headings = new ArrayList<>();
+        document.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Heading heading) {
+                if (heading.getLevel() <= MAX_INDEXED_HEADING_LEVEL) {
+                    String text = textOf(heading);
+                    if (!text.isEmpty()) {
+                        headings.add(text);
+                    }
+                }
+            }
+        });
+        return headings;
+    }
+
+    private static String textOf(Node node) {
+        StringBuilder text = new StringBuilder();
+        node.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Text literal) {
+                text.append(literal.getLiteral());
+            }
+
+            @Override
+            public void visit(Code literal) {
+                text.append(literal.getLiteral());
+            }
+
+            @Override
+            public void visit(SoftLineBreak lineBreak) {
+                text.append(' ');
+            }
+        });
+        return text.toString().trim();
+    }
+
+    private List<LessonSection> buildSections(String lessonPath, Node document) {
+        // Each h1/h2 starts a new section; top-level blocks are rendered one by one so the tree is left intact
+        List<LessonSection> sections = new ArrayList<>();
+        LessonSection current = null;
+        StringBuilder html = new StringBuilder();
+        int words = 0;
+        for (Node block = document.getFirstChild(); block != null; block = block.getNext()) {
+            if (block instanceof Heading heading && heading.getLevel() <= SECTION_HEADING_LEVEL) {
+                addSection(sections, current, html, words);
+                current = new LessonSection();
+                current.setHeading(textOf(heading));
+                current.setLevel(heading.getLevel());
+                html.setLength(0);
+                words = 0;
+            } else if (current == null) {
+                current = new LessonSection();
+            }
+            html.append(renderer.render(block));
+            String text = textOf(block);
+            words += text.isEmpty() ? 0 : text.split("\\s+").length;
+        }
+        addSection(sections, current, html, words);
+
+        for (int i = 0; i < sections.size(); i++) {
+            LessonSection section = sections.get(i);
+            section.setLessonPath(lessonPath);
+            section.setSectionIndex(i);
+        }
+        return sections;
+    }
+
+    private static void addSection(List<LessonSection> sections, LessonSection section, StringBuilder html, int words) {
+        if (section != null && (section.getHeading() != null || !html.toString().isBlank())) {
+            section.setHtmlContent(html.toString());
+            section.setWordCount(words);
+            sections.add(section);
+        }
+    }
+
+    private LinkTargets extractLinks(Node document) {
+        Set<String> lessons = new LinkedHashSet<>();
+        Set<String> images = new LinkedHashSet<>();
+        StringBuilder text = new StringBuilder();
+        document.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Text node) {
+                text.append(node.getLiteral());
+            }
+
+            @Override
+            public void visit(SoftLineBreak node) {
+                text.append('\n');
+            }
+
+            @Override
+            public void visit(HardLineBreak node) {
+                text.append('\n');
+            }
+
+            @Override
+            public void visit(Paragraph node) {
+                visitChildren(node);
+                text.append('\n');
+            }
+
+            @Override
+            public void visit(Heading node) {
+                visitChildren(node);
+                text.append('\n');
+            }
+
+            @Override
+            public void visit(Image node) {
+                images.add(node.getDestination());
+            }
+
+            @Override
+            public void visit(Link node) {
+                String destination = node.getDestination();
+                if (destination.endsWith(".md") && !destination.contains("://")) {
+                    lessons.add(destination);
+                }
+                visitChildren(node);
+            }
+        });
+
+        // Wiki links are not CommonMark syntax and arrive as plain text; code spans and blocks are not Text nodes
+        Matcher matcher = WIKI_LINK_PATTERN.matcher(text);
+        while (matcher.find()) {
+            String target = matcher.group(2).split("\\|", 2)[0].trim();
+            if (target.isEmpty()) {
+                continue;
+            }
+            if (!matcher.group(1).isEmpty() && isImageFile(target)) {
+                images.add(target);
+            } else {
+                lessons.add(target);
+            }
+        }
+        return new LinkTargets(new ArrayList<>(lessons), new ArrayList<>(images));
+    }
+
+    private static boolean isImageFile(String fileName) {
+        String lowerCaseName = fileName.toLowerCase();
+        return IMAGE_EXTENSIONS.stream().anyMatch(lowerCaseName::endsWith);
+    }
+
+    private record LinkTargets(List<String> lessons, List<String> images) {
     }
 
     private int countWords(String content) {
@@ -361,8 +831,7 @@ public class UploadServiceImpl implements UploadService {
     }
 
     private Integer extractLessonNumber(String title) {
-        Pattern pattern = Pattern.compile("Урок\\s+(\\d+)", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(title);
+        Matcher matcher = LESSON_NUMBER_PATTERN.matcher(title);
         if (matcher.find()) {
             return Integer.parseInt(matcher.group(1));
         }
@@ -388,18 +857,50 @@ public class UploadServiceImpl implements UploadService {
         return result.toString();
     }
 
-    private void extractZipFile(MultipartFile file, Path destDir) throws IOException {
-        try (ZipInputStream zis = new ZipInputStream(file.getInputStream())) {
+    private List<MarkdownEntry> readZipEntries(InputStreamSource archive, String targetFolder,
+                                               Set<String> changedImages, List<String> errors) throws IOException {
+        List<MarkdownEntry> markdownEntries = new ArrayList<>();
+        int images = 0;
+        try (ZipInputStream zis = new ZipInputStream(archive.getInputStream())) {
             ZipEntry entry;
             while ((entry = zis.getNextEntry()) != null) {
-                Path filePath = destDir.resolve(entry.getName());
-                if (!entry.isDirectory()) {
-                    Files.createDirectories(filePath.getParent());
-                    Files.copy(zis, filePath, StandardCopyOption.REPLACE_EXISTING);
+                String entryName = entry.getName().replace('\\', '/');
+                String fileName = entryName.substring(entryName.lastIndexOf('/') + 1);
+                if (entry.isDirectory() || isIgnoredEntry(entryName, fileName)) {
+                    zis.closeEntry();
+                    continue;
+                }
+
+                if (fileName.endsWith(".md")) {
+                    markdownEntries.add(new MarkdownEntry(fileName, new String(zis.readAllBytes(), StandardCharsets.UTF_8)));
+                } else if (isImageFile(fileName)) {
+                    storeImage(zis, fileName, targetFolder, errors)
+                            .filter(ImageStoreService.StoredImage::remapped)
+                            .ifPresent(stored -> changedImages.add(fileName));
+                    images++;
+                } else {
+                    log.debug("Skipping archive entry: {}", entryName);
                 }
                 zis.closeEntry();
             }
         }
+        log.info("Stored {} images from the archive", images);
+        return markdownEntries;
+    }
+
+    private static boolean isIgnoredEntry(String entryName, String fileName) {
+        // Entries are never written by their archive path, so traversal names are just rejected rather than resolved
+        return fileName.isEmpty()
+                || fileName.startsWith(".")
+                || entryName.startsWith("/")
+                || entryName.startsWith("__MACOSX/")
+                || Arrays.asList(entryName.split("/")).contains("..");
+    }
+
+    private record MarkdownEntry(String fileName, String content) {
+    }
+
+    private record RenderTask(String fileName, CompletableFuture<PreparedLesson> lesson) {
     }
 
     private void deleteDirectory(Path path) throws IOException {
@@ -409,40 +910,95 @@ public class UploadServiceImpl implements UploadService {
                 .forEach(File::delete);
     }
 
-    private void processMarkdownFile(Path mdFile, String targetFolder,
-                                     List<String> uploadedFiles, List<String> errors) {
+    private Optional<ImageStoreService.StoredImage> storeImage(InputStream content, String fileName, String targetFolder, List<String> errors) {
         try {
-            String content = Files.readString(mdFile, StandardCharsets.UTF_8);
-            String fileName = mdFile.getFileName().toString();
-            String lessonPath = targetFolder + "/" + fileName;
+            // Stored once by content hash; the folder only gets a name mapping
+            ImageStoreService.StoredImage stored = imageStoreService.store(content, targetFolder, fileName);
 
-            saveLessonToDatabase(lessonPath, content, targetFolder);
-            uploadedFiles.add(fileName);
-            log.info("Uploaded lesson: {}", fileName);
+            log.info("Stored image: {} in {} as {}{}", fileName, targetFolder, stored.objectName(), stored.created() ? "" : " (deduplicated)");
+            return Optional.of(stored);
         } catch (Exception e) {
-            log.error("Failed to process file: {}", mdFile.getFileName(), e);
-            errors.add(mdFile.getFileName().toString() + ": " + e.getMessage());
+            log.error("Failed to store image: {}", fileName, e);
+            errors.add("Image " + fileName + ": " + e.getMessage());
+            return Optional.empty();
         }
     }
 
-    private void copyImageFile(Path imageFile, Path tempDir, String targetFolder, List<String> errors) {
-        try {
-            String fileName = imageFile.getFileName().toString();
+    private void rewriteImageDestinations(Node document, String targetFolder) {
+        // Point images at their content-addressed URLs so the browser can cache them forever
+        document.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Image node) {
+                imageNameOf(node.getDestination())
+                        .flatMap(name -> imageStoreService.resolve(targetFolder, name))
+                        .ifPresent(objectName -> node.setDestination(imageStoreService.objectUrl(objectName)));
+            }
+        });
+    }
+
+    // The store name a local image destination resolves by; external and inline images have none
+    private static Optional<String> imageNameOf(String destination) {
+        if (destination == null || destination.contains("://") || destination.startsWith("data:")) {
+            return Optional.empty();
+        }
+        String decoded = URLDecoder.decode(destination, StandardCharsets.UTF_8);
+        return Optional.of(decoded.substring(decoded.lastIndexOf('/') + 1));
+    }
+
+    private void setImageAttributes(Node node, String tagName, Map<String, String> attributes) {
+        if (!(node instanceof Image image)) {
+            return;
+        }
+        attributes.put("loading", "lazy");
+        attributes.put("decoding", "async");
 
-            // Create target directory structure
-            Path uploadFolderPath = Paths.get(uploadPath, targetFolder);
-            if (!Files.exists(uploadFolderPath)) {
-                Files.createDirectories(uploadFolderPath);
+        String destination = image.getDestination();
+        if (destination == null || destination.contains("://") || destination.startsWith("data:")) {
+            return;
+        }
+        String objectsUrl = imageStoreService.objectUrl("");
+        boolean stored = destination.startsWith(objectsUrl);
+        Optional<Path> imagePath = stored
+                ? imageStoreService.findObject(destination.substring(objectsUrl.length()))
+                : imageIndexService.find(URLDecoder.decode(destination, StandardCharsets.UTF_8));
+        if (imagePath.isEmpty()) {
+            return;
+        }
+
+        // Intrinsic size lets the browser reserve the box before the image arrives
+        imageDerivativeService.dimensions(imagePath.get()).ifPresent(dimensions -> {
+            attributes.put("width", String.valueOf(dimensions.width()));
+            attributes.put("height", String.valueOf(dimensions.height()));
+
+            List<Integer> widths = imageDerivativeService.variantWidths(imagePath.get());
+            if (!widths.isEmpty()) {
+                String imageUrl = stored
+                        ? destination
+                        : contextPath + "/image/" + UriUtils.encodePathSegment(imagePath.get().getFileName().toString(), StandardCharsets.UTF_8);
+                String srcset = widths.stream()
+                        .map(width -> imageUrl + "?w=" + width + " " + width + "w")
+                        .collect(Collectors.joining(", "));
+                attributes.put("srcset", srcset + ", " + imageUrl + " " + dimensions.width() + "w");
+                attributes.put("sizes", "(max-width: " + dimensions.width() + "px) 100vw, " + dimensions.width() + "px");
             }
+        });
+    }
 
-            // Copy image to upload directory
-            Path targetImagePath = uploadFolderPath.resolve(fileName);
-            Files.copy(imageFile, targetImagePath, StandardCopyOption.REPLACE_EXISTING);
+    private void refreshCatalogAfterCommit() {
+        // Rebuild the catalog snapshot only once the new rows are visible to other transactions
+        afterCommit(lessonCatalogService::refresh);
+    }
 
-            log.info("Copied image: {} to {}", fileName, targetImagePath);
-        } catch (Exception e) {
-            log.error("Failed to copy image: {}", imageFile.getFileName(), e);
-            errors.add("Image " + imageFile.getFileName().toString() + ": " + e.getMessage());
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
 
@@ -503,6 +1059,8 @@ public class UploadServiceImpl implements UploadService {
         Path uploadFolderPath = Paths.get(uploadPath, folderPath);
         if (Files.exists(uploadFolderPath)) {
             deleteDirectory(uploadFolderPath);
+            imageIndexService.unregisterFolder(uploadFolderPath);
+            imageDerivativeService.deleteVariants(uploadFolderPath);
             log.info("🗑️ Deleted physical folder: {}", uploadFolderPath);
         }
 
@@ -0,0 +1,98 @@
+package com.tradinginfo.backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP content codings we precompute response bodies for.
+ */
+public enum ContentEncoding {
+
+    IDENTITY("identity"),
+    GZIP("gzip"),
+    DEFLATE("deflate");
+
+    private final String headerValue;
+
+    ContentEncoding(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    public String headerValue() {
+        return headerValue;
+    }
+
+    public byte[] encode(byte[] data) {
+        return switch (this) {
+            case IDENTITY -> data;
+            case GZIP -> gzip(data);
+            case DEFLATE -> deflate(data);
+        };
+    }
+
+    /**
+     * Picks the first compressed coding from {@code available}, in declaration order,
+     * that the client's Accept-Encoding allows; falls back to identity.
+     */
+    public static ContentEncoding negotiate(String acceptEncoding, Collection<ContentEncoding> available) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+
+        String header = acceptEncoding.toLowerCase(Locale.ROOT);
+        for (ContentEncoding candidate : values()) {
+            if (candidate != IDENTITY && available.contains(candidate) && isAccepted(header, candidate.headerValue)) {
+                return candidate;
+            }
+        }
+        return IDENTITY;
+    }
+
+    private static boolean isAccepted(String header, String coding) {
+        for (String token : header.split(",")) {
+            String[] parts = token.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equals(coding) && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to gzip response body", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // HTTP "deflate" is the zlib format, which is what DeflaterOutputStream writes by default
+    private static byte[] deflate(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(buffer)) {
+            deflate.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to deflate response body", e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,55 @@
+package com.tradinginfo.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Response body rendered once and kept in every supported content coding,
+ * together with a strong ETag derived from the uncompressed bytes.
+ */
+public record PrecompressedBody(String etag, Map<ContentEncoding, byte[]> variants) {
+
+    public PrecompressedBody {
+        variants = Map.copyOf(variants);
+    }
+
+    public static PrecompressedBody of(byte[] identity, Set<ContentEncoding> encodings) {
+        Map<ContentEncoding, byte[]> variants = new EnumMap<>(ContentEncoding.class);
+        variants.put(ContentEncoding.IDENTITY, identity);
+        encodings.forEach(encoding -> variants.putIfAbsent(encoding, encoding.encode(identity)));
+        return new PrecompressedBody(strongEtag(identity), variants);
+    }
+
+    public static PrecompressedBody of(String identity, Set<ContentEncoding> encodings) {
+        return of(identity.getBytes(StandardCharsets.UTF_8), encodings);
+    }
+
+    public ContentEncoding negotiate(String acceptEncoding) {
+        return ContentEncoding.negotiate(acceptEncoding, variants.keySet());
+    }
+
+    public byte[] body(ContentEncoding encoding) {
+        return variants.get(encoding);
+    }
+
+    /**
+     * Strong validators must differ between codings of the same resource (RFC 9110 8.8.3).
+     */
+    public String etag(ContentEncoding encoding) {
+        return encoding == ContentEncoding.IDENTITY ? etag : etag + "-" + encoding.headerValue();
+    }
+
+    private static String strongEtag(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
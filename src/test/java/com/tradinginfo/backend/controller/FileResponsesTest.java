@@ -0,0 +1,128 @@
+package com.tradinginfo.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileResponsesTest {
+
+    private static final String ETAG = "\"abc\"";
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.write(directory.resolve("image.png"), new byte[100]);
+        request = new MockHttpServletRequest();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+    }
+
+    @Test
+    void sendsTheWholeFileWithoutARange() throws IOException {
+        ResponseEntity<Resource> response = serve(null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(100);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(100L);
+    }
+
+    @Test
+    void sendsASingleRangeAsPartialContent() throws IOException {
+        ResponseEntity<Resource> response = serve("bytes=10-19", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 10-19/100");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(10);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(10L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(20L);
+    }
+
+    @Test
+    void resolvesSuffixAndOpenEndedRanges() throws IOException {
+        assertThat(serve("bytes=-30", null).getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 70-99/100");
+        assertThat(serve("bytes=90-", null).getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 90-99/100");
+        assertThat(serve("bytes=95-500", null).getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 95-99/100");
+    }
+
+    @Test
+    void rejectsARangeStartingPastTheEnd() throws IOException {
+        ResponseEntity<Resource> response = serve("bytes=100-", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+    }
+
+    @Test
+    void rejectsAMalformedRange() throws IOException {
+        ResponseEntity<Resource> response = serve("bytes=abc", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+    }
+
+    @Test
+    void rejectsAnyRangeOfAnEmptyFile() throws IOException {
+        file = Files.write(directory.resolve("empty.png"), new byte[0]);
+
+        ResponseEntity<Resource> response = serve("bytes=0-", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */0");
+    }
+
+    @Test
+    void ignoresTheRangeWhenIfRangeIsStale() throws IOException {
+        ResponseEntity<Resource> response = serve("bytes=10-19", "\"old\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(100);
+    }
+
+    @Test
+    void honoursTheRangeWhenIfRangeMatches() throws IOException {
+        assertThat(serve("bytes=10-19", ETAG).getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+    }
+
+    @Test
+    void leavesMultipleRangesToSpringMvc() throws IOException {
+        ResponseEntity<Resource> response = serve("bytes=0-9,20-29", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isInstanceOf(FileSystemResource.class);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+    }
+
+    @Test
+    void fallsBackToAResourceWithoutSendfileSupport() throws IOException {
+        request.removeAttribute("org.apache.tomcat.sendfile.support");
+
+        ResponseEntity<Resource> response = serve("bytes=10-19", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isInstanceOf(FileSystemResource.class);
+    }
+
+    private ResponseEntity<Resource> serve(String range, String ifRange) throws IOException {
+        return FileResponses.serve(file, new HttpHeaders(), ETAG, FileResponses.IMMUTABLE, range, ifRange, request);
+    }
+}
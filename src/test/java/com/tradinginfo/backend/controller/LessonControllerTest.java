@@ -0,0 +1,36 @@
+package com.tradinginfo.backend.controller;
+
+import com.tradinginfo.backend.service.lesson.LessonContentService;
+import com.tradinginfo.backend.service.lesson.LessonGraphService;
+import com.tradinginfo.backend.service.lesson.LessonLinkResolver;
+import com.tradinginfo.backend.service.lesson.LessonNavigationCacheService;
+import com.tradinginfo.backend.service.lesson.LessonSearchService;
+import com.tradinginfo.backend.service.lesson.LessonSectionService;
+import com.tradinginfo.backend.service.search.LessonSuggestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class LessonControllerTest {
+
+    private final LessonContentService lessonContentService = mock(LessonContentService.class);
+    private final LessonController controller = new LessonController(lessonContentService,
+            mock(LessonSearchService.class), mock(LessonNavigationCacheService.class), mock(LessonSuggestService.class),
+            mock(LessonLinkResolver.class), mock(LessonGraphService.class), mock(LessonSectionService.class));
+
+    @Test
+    void rejectsAnUnknownRenditionFormat() {
+        ResponseEntity<byte[]> response = controller.getLessonRendition("course/a.md", "pdf", null, null, mock(WebRequest.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("Unsupported lesson format: pdf");
+        verifyNoInteractions(lessonContentService);
+    }
+}
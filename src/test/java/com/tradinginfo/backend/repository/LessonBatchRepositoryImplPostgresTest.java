@@ -0,0 +1,97 @@
+package com.tradinginfo.backend.repository;
+
+import com.tradinginfo.backend.entity.Lesson;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+class LessonBatchRepositoryImplPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("upload.path", () -> tempDirectory("uploads"));
+        registry.add("app.images.watch-enabled", () -> "false");
+    }
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Test
+    void reportsInsertedUpdatedAndUnchangedRows() {
+        assertThat(lessonRepository.upsertAll(List.of(lesson("course/a.md", "h1", "<p>a</p>"), lesson("course/b.md", "h1", "<p>b</p>"))))
+                .containsExactly(LessonUpsertOutcome.INSERTED, LessonUpsertOutcome.INSERTED);
+
+        List<LessonUpsertOutcome> outcomes = lessonRepository.upsertAll(List.of(
+                lesson("course/a.md", "h1", "<p>a</p>"),
+                lesson("course/b.md", "h2", "<p>b changed</p>"),
+                lesson("course/c.md", "h1", "<p>c</p>")));
+
+        assertThat(outcomes).containsExactly(LessonUpsertOutcome.UNCHANGED, LessonUpsertOutcome.UPDATED, LessonUpsertOutcome.INSERTED);
+        assertThat(lessonRepository.findByPath("course/b.md")).hasValueSatisfying(lesson -> {
+            assertThat(lesson.getFileHash()).isEqualTo("h2");
+            assertThat(lesson.getHtmlContent()).isEqualTo("<p>b changed</p>");
+        });
+    }
+
+    @Test
+    void updatesRowsWhoseRenderedHtmlChangedUnderTheSameHash() {
+        lessonRepository.upsertAll(List.of(lesson("course/a.md", "h1", "<p>old image url</p>")));
+
+        assertThat(lessonRepository.upsertAll(List.of(lesson("course/a.md", "h1", "<p>new image url</p>"))))
+                .containsExactly(LessonUpsertOutcome.UPDATED);
+    }
+
+    @Test
+    void storesJsonColumns() {
+        Lesson lesson = lesson("course/a.md", "h1", "<p>a</p>");
+        lesson.setHeadings(List.of("Intro", "Setup"));
+        lesson.setImageEmbeds(List.of("images/chart.png"));
+
+        lessonRepository.upsertAll(List.of(lesson));
+
+        assertThat(lessonRepository.findByPath("course/a.md")).hasValueSatisfying(stored -> {
+            assertThat(stored.getHeadings()).containsExactly("Intro", "Setup");
+            assertThat(stored.getImageEmbeds()).containsExactly("images/chart.png");
+        });
+    }
+
+    private static Lesson lesson(String path, String fileHash, String html) {
+        Lesson lesson = new Lesson();
+        lesson.setPath(path);
+        lesson.setTitle(path);
+        lesson.setContent("# " + path);
+        lesson.setHtmlContent(html);
+        lesson.setParentFolder(path.substring(0, path.lastIndexOf('/')));
+        lesson.setFileHash(fileHash);
+        lesson.setContentHash(Integer.toHexString(html.hashCode()));
+        return lesson;
+    }
+
+    private static String tempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix).toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
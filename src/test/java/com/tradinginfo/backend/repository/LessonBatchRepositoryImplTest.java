@@ -0,0 +1,94 @@
+package com.tradinginfo.backend.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tradinginfo.backend.entity.Lesson;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LessonBatchRepositoryImplTest {
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private EntityManager entityManager;
+    private LessonBatchRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        entityManager = mock(EntityManager.class);
+        repository = new LessonBatchRepositoryImpl(jdbcTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @Test
+    void mapsUpdateCountsToOutcomesInBatchOrder() {
+        existingPaths("course/b.md", "course/c.md");
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[]{1, 1, 0});
+
+        List<LessonUpsertOutcome> outcomes = repository.upsertAll(List.of(
+                lesson("course/a.md"), lesson("course/b.md"), lesson("course/c.md")));
+
+        assertThat(outcomes).containsExactly(LessonUpsertOutcome.INSERTED, LessonUpsertOutcome.UPDATED, LessonUpsertOutcome.UNCHANGED);
+        verify(entityManager).flush();
+    }
+
+    @Test
+    void sendsJsonColumnsAsText() {
+        existingPaths();
+        when(jdbcTemplate.batchUpdate(anyString(), any(SqlParameterSource[].class))).thenReturn(new int[]{1});
+        Lesson lesson = lesson("course/a.md");
+        lesson.setHeadings(List.of("Intro", "Setup"));
+        lesson.setFrontmatter(Map.of("title", "Intro"));
+
+        repository.upsertAll(List.of(lesson));
+
+        ArgumentCaptor<SqlParameterSource[]> batch = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        SqlParameterSource parameters = batch.getValue()[0];
+        assertThat(parameters.getValue("headings")).isEqualTo("[\"Intro\",\"Setup\"]");
+        assertThat(parameters.getValue("frontmatter")).isEqualTo("{\"title\":\"Intro\"}");
+        assertThat(parameters.getValue("imageEmbeds")).isNull();
+        assertThat(parameters.getValue("contentHash")).isEqualTo("c1");
+    }
+
+    @Test
+    void doesNothingForAnEmptyBatch() {
+        assertThat(repository.upsertAll(List.of())).isEmpty();
+        repository.replaceRenditions(List.of(), List.of());
+        repository.replaceSections(List.of(), List.of());
+
+        verifyNoInteractions(jdbcTemplate, entityManager);
+    }
+
+    private void existingPaths(String... paths) {
+        when(jdbcTemplate.queryForList(anyString(), any(SqlParameterSource.class), eq(String.class))).thenReturn(List.of(paths));
+    }
+
+    private static Lesson lesson(String path) {
+        Lesson lesson = new Lesson();
+        lesson.setPath(path);
+        lesson.setTitle(path);
+        lesson.setContent("# " + path);
+        lesson.setHtmlContent("<h1>" + path + "</h1>");
+        lesson.setParentFolder("course");
+        lesson.setFileHash("h1");
+        lesson.setContentHash("c1");
+        return lesson;
+    }
+}
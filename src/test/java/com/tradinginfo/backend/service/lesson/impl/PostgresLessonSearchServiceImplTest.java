@@ -0,0 +1,71 @@
+package com.tradinginfo.backend.service.lesson.impl;
+
+import com.tradinginfo.backend.dto.SearchPageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostgresLessonSearchServiceImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PostgresLessonSearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        searchService = new PostgresLessonSearchServiceImpl(jdbcTemplate);
+        ReflectionTestUtils.setField(searchService, "maxResults", 50);
+    }
+
+    @Test
+    void escapesHeadlinesAndKeepsOnlyTheHighlightTags() throws SQLException {
+        returnsRow("<img src=x onerror=alert(1)> \u0002stop\u0003 & loss");
+
+        SearchPageDTO page = searchService.searchLessons("stop", 0, 10, true);
+
+        assertThat(page.results()).singleElement().satisfies(result -> assertThat(result.snippet())
+                .isEqualTo("&lt;img src=x onerror=alert(1)&gt; <mark>stop</mark> &amp; loss"));
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countsHitsSeparatelyWhenThePageIsPastTheLastHit() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(12L);
+
+        SearchPageDTO page = searchService.searchLessons("stop", 20, 10, false);
+
+        assertThat(page.results()).isEmpty();
+        assertThat(page.total()).isEqualTo(12);
+        assertThat(page.hasMore()).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void returnsRow(String snippet) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString("path")).thenReturn("course/risk.md");
+        when(row.getString("title")).thenReturn("Risk");
+        when(row.getString("parent_folder")).thenReturn("course");
+        when(row.getDouble("score")).thenReturn(0.5);
+        when(row.getLong("total")).thenReturn(1L);
+        when(row.getString("snippet")).thenReturn(snippet);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation ->
+                List.of(invocation.<RowMapper<Object>>getArgument(1).mapRow(row, 0)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.tradinginfo.backend.service.search.analysis;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EnglishStemmerTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "trading, trade",
+            "trades, trade",
+            "traded, trade",
+            "running, run",
+            "runs, run",
+            "candle, candl",
+            "candles, candl",
+            "indicator, indic",
+            "indicators, indic",
+            "relational, relat",
+            "conditional, condit",
+            "skies, ski",
+            "sky, sky"
+    })
+    void reducesInflectedFormsToTheirStem(String word, String stem) {
+        assertThat(EnglishStemmer.stem(word)).isEqualTo(stem);
+    }
+}
@@ -0,0 +1,33 @@
+package com.tradinginfo.backend.service.search.analysis;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RussianStemmerTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "торговля, торговл",
+            "торговли, торговл",
+            "торговлей, торговл",
+            "свеча, свеч",
+            "свечи, свеч",
+            "свечей, свеч",
+            "индикатора, индикатор",
+            "индикаторов, индикатор",
+            "быстрый, быстр",
+            "быстрая, быстр",
+            "быстрейший, быстр"
+    })
+    void reducesInflectedFormsToTheirStem(String word, String stem) {
+        assertThat(RussianStemmer.stem(word)).isEqualTo(stem);
+    }
+
+    @Test
+    void leavesWordsWithoutAnEndingUntouched() {
+        assertThat(RussianStemmer.stem("трейдинг")).isEqualTo("трейдинг");
+    }
+}
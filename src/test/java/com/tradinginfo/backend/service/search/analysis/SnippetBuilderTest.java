@@ -0,0 +1,59 @@
+package com.tradinginfo.backend.service.search.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnippetBuilderTest {
+
+    @Test
+    void highlightsInflectedFormsOfQueryTerms() {
+        String snippet = SnippetBuilder.build("Японские свечи и свечной анализ", terms("свеча"), 10);
+
+        assertThat(snippet).isEqualTo("Японские <mark>свечи</mark> и свечной анализ");
+    }
+
+    @Test
+    void picksTheWindowWithTheMostMatches() {
+        String text = "Intro words here. " + "filler ".repeat(20) + "stop loss and stop orders. " + "tail ".repeat(20);
+
+        String snippet = SnippetBuilder.build(text, terms("stop loss"), 5);
+
+        assertThat(snippet).isEqualTo("…filler <mark>stop</mark> <mark>loss</mark> and <mark>stop</mark>…");
+    }
+
+    @Test
+    void startsAtTheBeginningWithoutMatches() {
+        String snippet = SnippetBuilder.build("one two three four five", terms("missing"), 3);
+
+        assertThat(snippet).isEqualTo("one two three…");
+    }
+
+    @Test
+    void stripsMarkdownNoiseBetweenWords() {
+        String snippet = SnippetBuilder.build("## Уровни **поддержки** и [[сопротивления]]", terms("поддержка"), 10);
+
+        assertThat(snippet).isEqualTo("Уровни <mark>поддержки</mark> и сопротивления");
+    }
+
+    @Test
+    void escapesHtml() {
+        String snippet = SnippetBuilder.build("price < 5 & \"volume\"", terms("volume"), 10);
+
+        assertThat(snippet).isEqualTo("price &lt; 5 &amp; &quot;<mark>volume</mark>");
+    }
+
+    @Test
+    void returnsEmptyForEmptyText() {
+        assertThat(SnippetBuilder.build(null, terms("any"), 10)).isEmpty();
+        assertThat(SnippetBuilder.build("", terms("any"), 10)).isEmpty();
+        assertThat(SnippetBuilder.build("### ---", terms("any"), 10)).isEmpty();
+    }
+
+    private static Set<String> terms(String query) {
+        return new HashSet<>(TextAnalyzer.analyze(query));
+    }
+}
@@ -0,0 +1,35 @@
+package com.tradinginfo.backend.service.search.analysis;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+    @Test
+    void lowerCasesStemsAndDropsStopWords() {
+        assertThat(TextAnalyzer.analyze("The Trading of Свечей и RSI-14 in 2024"))
+                .containsExactly("trade", "свеч", "rsi", "14", "2024");
+    }
+
+    @Test
+    void foldsYoToYe() {
+        assertThat(TextAnalyzer.analyze("ЁЛКИ елки")).containsExactly("елк", "елк");
+    }
+
+    @Test
+    void normalizesSingleWordsLikeAnalyze() {
+        assertThat(TextAnalyzer.normalize("Индикаторов")).isEqualTo("индикатор");
+        assertThat(TextAnalyzer.normalize("the")).isNull();
+        assertThat(TextAnalyzer.normalize("x")).isNull();
+        assertThat(TextAnalyzer.normalize("7")).isEqualTo("7");
+        assertThat(TextAnalyzer.normalize("a".repeat(41))).isNull();
+    }
+
+    @Test
+    void returnsNoTermsForEmptyText() {
+        assertThat(TextAnalyzer.analyze(null)).isEmpty();
+        assertThat(TextAnalyzer.analyze("")).isEmpty();
+        assertThat(TextAnalyzer.analyze(" ,.; ")).isEmpty();
+    }
+}
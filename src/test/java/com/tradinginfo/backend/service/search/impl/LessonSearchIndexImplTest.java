@@ -0,0 +1,154 @@
+package com.tradinginfo.backend.service.search.impl;
+
+import com.tradinginfo.backend.entity.Lesson;
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.service.search.LessonSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LessonSearchIndexImplTest {
+
+    private LessonRepository lessonRepository;
+    private LessonSearchIndexImpl index;
+
+    @BeforeEach
+    void setUp() {
+        lessonRepository = mock(LessonRepository.class);
+        when(lessonRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        index = new LessonSearchIndexImpl(lessonRepository);
+        ReflectionTestUtils.setField(index, "titleBoost", 3.0);
+    }
+
+    @Test
+    void ranksTitleMatchesAboveBodyMatches() {
+        index.rebuild();
+        index.index("course/body.md", "Введение", "Здесь немного про свечи и объём", Map.of());
+        index.index("course/title.md", "Японские свечи", "Обзор графиков", Map.of());
+
+        LessonSearchIndex.Result result = index.search("свеча", 0, 10);
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.hits()).extracting(LessonSearchIndex.Hit::path)
+                .containsExactly("course/title.md", "course/body.md");
+    }
+
+    @Test
+    void ranksDocumentsMatchingMoreQueryTermsHigher() {
+        index.rebuild();
+        index.index("a.md", "Урок 1", "Уровни поддержки", Map.of());
+        index.index("b.md", "Урок 2", "Уровни поддержки и сопротивления", Map.of());
+        index.index("c.md", "Урок 3", "Скользящие средние", Map.of());
+
+        LessonSearchIndex.Result result = index.search("поддержка сопротивление", 0, 10);
+
+        assertThat(result.total()).isEqualTo(2);
+        assertThat(result.hits()).extracting(LessonSearchIndex.Hit::path).containsExactly("b.md", "a.md");
+    }
+
+    @Test
+    void pagesRankedHitsButCountsAllMatches() {
+        index.rebuild();
+        for (int i = 0; i < 5; i++) {
+            index.index("lesson-" + i + ".md", "Trading " + "trading ".repeat(i), "", Map.of());
+        }
+
+        LessonSearchIndex.Result page = index.search("trading", 1, 2);
+
+        assertThat(page.total()).isEqualTo(5);
+        assertThat(page.hits()).extracting(LessonSearchIndex.Hit::path).containsExactly("lesson-3.md", "lesson-2.md");
+    }
+
+    @Test
+    void excludesFilteredPathsFromHitsAndTotal() {
+        index.rebuild();
+        index.index("kept.md", "Risk management", "", Map.of());
+        index.index("gone.md", "Risk management", "", Map.of());
+
+        LessonSearchIndex.Result result = index.search("risk", 0, 10, path -> !path.equals("gone.md"));
+
+        assertThat(result.total()).isEqualTo(1);
+        assertThat(result.hits()).extracting(LessonSearchIndex.Hit::path).containsExactly("kept.md");
+    }
+
+    @Test
+    void reindexingReplacesThePreviousVersion() {
+        index.rebuild();
+        index.index("lesson.md", "Старое название", "про свечи", Map.of());
+        index.index("lesson.md", "Новое название", "про индикаторы", Map.of());
+
+        assertThat(index.search("свечи", 0, 10).total()).isZero();
+        assertThat(index.search("индикатор", 0, 10).hits())
+                .extracting(LessonSearchIndex.Hit::path).containsExactly("lesson.md");
+    }
+
+    @Test
+    void compactionKeepsScoresAndDropsTombstones() {
+        index.rebuild();
+        index.index("keep-1.md", "Volume analysis", "volume profile", Map.of());
+        index.index("keep-2.md", "Order flow", "volume delta", Map.of());
+        index.index("drop-1.md", "Volume spread", "", Map.of());
+        index.index("drop-2.md", "Market profile", "", Map.of());
+        List<LessonSearchIndex.Hit> before = index.search("volume", 0, 10, path -> path.startsWith("keep")).hits();
+
+        index.remove("drop-1.md");
+        index.remove("drop-2.md");
+
+        assertThat((List<?>) ReflectionTestUtils.getField(index, "paths")).hasSize(2);
+        LessonSearchIndex.Result after = index.search("volume", 0, 10);
+        assertThat(after.total()).isEqualTo(2);
+        assertThat(after.hits()).extracting(LessonSearchIndex.Hit::path)
+                .containsExactlyElementsOf(before.stream().map(LessonSearchIndex.Hit::path).toList());
+        assertThat(index.search("market", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void removeFolderDropsOnlyDirectChildren() {
+        index.rebuild();
+        index.index("course/a.md", "Trend lines", "", Map.of());
+        index.index("course/part/b.md", "Trend channels", "", Map.of());
+
+        index.removeFolder("course");
+
+        assertThat(index.search("trend", 0, 10).hits())
+                .extracting(LessonSearchIndex.Hit::path).containsExactly("course/part/b.md");
+    }
+
+    @Test
+    void buildsFromTheRepositoryAndSkipsFolders() {
+        Lesson lesson = lesson("course/intro.md", "Fibonacci retracement", false);
+        Lesson folder = lesson("course", "Fibonacci", true);
+        when(lessonRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(lesson, folder)));
+
+        LessonSearchIndex.Result result = index.search("fibonacci", 0, 10);
+
+        assertThat(result.hits()).extracting(LessonSearchIndex.Hit::path).containsExactly("course/intro.md");
+    }
+
+    @Test
+    void replaysUpdatesReceivedBeforeTheFirstBuild() {
+        index.index("late.md", "Stop loss placement", "", Map.of());
+
+        assertThat(index.search("stop", 0, 10).hits())
+                .extracting(LessonSearchIndex.Hit::path).containsExactly("late.md");
+    }
+
+    private static Lesson lesson(String path, String title, boolean folder) {
+        Lesson lesson = new Lesson();
+        lesson.setPath(path);
+        lesson.setTitle(title);
+        lesson.setContent("");
+        lesson.setIsFolder(folder);
+        return lesson;
+    }
+}
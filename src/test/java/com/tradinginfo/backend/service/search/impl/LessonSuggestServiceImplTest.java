@@ -0,0 +1,31 @@
+package com.tradinginfo.backend.service.search.impl;
+
+import com.tradinginfo.backend.dto.SuggestionDTO;
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSummary;
+import com.tradinginfo.backend.service.lesson.LessonCatalog;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LessonSuggestServiceImplTest {
+
+    @Test
+    void matchesPrefixesLongerThanTheStoredKeys() {
+        String title = "Управление капиталом и риском при торговле фьючерсами на московской бирже";
+        LessonCatalogService lessonCatalogService = mock(LessonCatalogService.class);
+        when(lessonCatalogService.getCatalog()).thenReturn(LessonCatalog.of(1, List.of(
+                new LessonSummary(1L, "course/risk.md", title, "course", 1, 100, "hash", null, false, false))));
+        LessonRepository lessonRepository = mock(LessonRepository.class);
+        LessonSuggestServiceImpl suggestService = new LessonSuggestServiceImpl(lessonCatalogService, lessonRepository);
+
+        List<SuggestionDTO> suggestions = suggestService.suggest(title, 5);
+
+        assertThat(suggestions).extracting(SuggestionDTO::path).containsExactly("course/risk.md");
+    }
+}
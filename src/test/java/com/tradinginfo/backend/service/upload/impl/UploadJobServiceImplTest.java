@@ -0,0 +1,240 @@
+package com.tradinginfo.backend.service.upload.impl;
+
+import com.tradinginfo.backend.dto.UploadJobDTO;
+import com.tradinginfo.backend.entity.UploadJob;
+import com.tradinginfo.backend.repository.UploadJobRepository;
+import com.tradinginfo.backend.service.upload.UploadProgressListener;
+import com.tradinginfo.backend.service.upload.UploadService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadJobServiceImplTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    Path jobsRoot;
+
+    private final Map<String, UploadJob> rows = new ConcurrentHashMap<>();
+    private UploadJobRepository uploadJobRepository;
+    private UploadService uploadService;
+    private UploadJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        uploadJobRepository = mock(UploadJobRepository.class);
+        when(uploadJobRepository.save(any(UploadJob.class))).thenAnswer(invocation -> {
+            UploadJob job = invocation.getArgument(0);
+            rows.put(job.getId(), job);
+            return job;
+        });
+        when(uploadJobRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<String>getArgument(0))));
+        uploadService = mock(UploadService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void runsASubmittedJobToCompletionAndDeletesItsArchive() throws Exception {
+        service = newService(1, 4);
+        CountDownLatch release = new CountDownLatch(1);
+        when(uploadService.uploadLessons(any(InputStreamSource.class), eq("course"), eq(7L), eq(Boolean.TRUE), any())).thenAnswer(invocation -> {
+            release.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            return Map.of("success", true, "filesUploaded", 2);
+        });
+
+        UploadJobDTO queued = service.submit(archive(), "course", 7L, true);
+
+        assertThat(queued.status()).isIn(UploadJob.Status.QUEUED, UploadJob.Status.RUNNING);
+        release.countDown();
+        UploadJobDTO finished = awaitFinished(queued.id());
+        assertThat(finished.status()).isEqualTo(UploadJob.Status.COMPLETED);
+        assertThat(finished.result()).containsEntry("filesUploaded", 2);
+        assertThat(rows.get(queued.id()).getRemoveMissing()).isTrue();
+        try (var files = Files.list(jobsRoot)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void marksAJobFailedWhenTheIngestReportsFailure() throws Exception {
+        service = newService(1, 4);
+        when(uploadService.uploadLessons(any(InputStreamSource.class), anyString(), any(), any(), any()))
+                .thenReturn(Map.of("success", false, "error", "File processing error: broken zip"));
+
+        UploadJobDTO finished = awaitFinished(service.submit(archive(), "course", 7L, null).id());
+
+        assertThat(finished.status()).isEqualTo(UploadJob.Status.FAILED);
+        assertThat(finished.error()).isEqualTo("File processing error: broken zip");
+    }
+
+    @Test
+    void reportsProgressWhileRunning() throws Exception {
+        service = newService(1, 4);
+        CountDownLatch reported = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(uploadService.uploadLessons(any(InputStreamSource.class), anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            UploadProgressListener progress = invocation.getArgument(4);
+            progress.phase("writing");
+            progress.lessonsFound(10);
+            progress.progress(4, 1);
+            reported.countDown();
+            release.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            return Map.of("success", true);
+        });
+
+        String id = service.submit(archive(), "course", 7L, null).id();
+        assertThat(reported.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isTrue();
+
+        UploadJobDTO running = service.getJob(id).orElseThrow();
+        assertThat(running.status()).isEqualTo(UploadJob.Status.RUNNING);
+        assertThat(running.phase()).isEqualTo("writing");
+        assertThat(running.lessonsTotal()).isEqualTo(10);
+        assertThat(running.lessonsProcessed()).isEqualTo(4);
+        assertThat(running.errorCount()).isEqualTo(1);
+        release.countDown();
+        assertThat(awaitFinished(id).status()).isEqualTo(UploadJob.Status.COMPLETED);
+    }
+
+    @Test
+    void rejectsSubmissionsBeyondTheQueueCapacity() throws Exception {
+        service = newService(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(uploadService.uploadLessons(any(InputStreamSource.class), anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            return Map.of("success", true);
+        });
+
+        String running = service.submit(archive(), "course", 7L, null).id();
+        assertThat(started.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isTrue();
+        String queued = service.submit(archive(), "course", 7L, null).id();
+        UploadJobDTO rejected = service.submit(archive(), "course", 7L, null);
+
+        assertThat(rejected.status()).isEqualTo(UploadJob.Status.FAILED);
+        assertThat(rejected.error()).contains("queue is full");
+        release.countDown();
+        assertThat(awaitFinished(running).status()).isEqualTo(UploadJob.Status.COMPLETED);
+        assertThat(awaitFinished(queued).status()).isEqualTo(UploadJob.Status.COMPLETED);
+    }
+
+    @Test
+    void resumesEveryPendingJobRegardlessOfQueueCapacity() throws Exception {
+        service = newService(1, 1);
+        when(uploadService.uploadLessons(any(InputStreamSource.class), anyString(), any(), any(), any()))
+                .thenReturn(Map.of("success", true));
+        List<UploadJob> pending = List.of(pendingJob("a", UploadJob.Status.RUNNING), pendingJob("b", UploadJob.Status.QUEUED),
+                pendingJob("c", UploadJob.Status.QUEUED), pendingJob("d", UploadJob.Status.QUEUED));
+        when(uploadJobRepository.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(pending);
+
+        service.resumePendingJobs();
+
+        for (UploadJob job : pending) {
+            assertThat(awaitFinished(job.getId()).status()).isEqualTo(UploadJob.Status.COMPLETED);
+        }
+    }
+
+    @Test
+    void leavesJobsInterruptedByShutdownToResumeOnTheNextStart() throws Exception {
+        service = newService(1, 4);
+        CountDownLatch started = new CountDownLatch(1);
+        when(uploadService.uploadLessons(any(InputStreamSource.class), anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+                return Map.of("success", true);
+            } catch (InterruptedException e) {
+                // The real ingest sees the interrupt as a ClosedByInterruptException and reports a failed upload
+                return Map.of("success", false, "error", "File processing error: null");
+            }
+        });
+
+        String running = service.submit(archive(), "course", 7L, null).id();
+        assertThat(started.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isTrue();
+        String queued = service.submit(archive(), "course", 7L, null).id();
+
+        service.shutdown();
+
+        assertThat(rows.get(running).getStatus()).isEqualTo(UploadJob.Status.RUNNING);
+        assertThat(rows.get(queued).getStatus()).isEqualTo(UploadJob.Status.QUEUED);
+        assertThat(Path.of(rows.get(running).getArchivePath())).exists();
+        assertThat(Path.of(rows.get(queued).getArchivePath())).exists();
+    }
+
+    @Test
+    void failsPendingJobsWhoseArchiveIsGone() throws Exception {
+        service = newService(1, 1);
+        UploadJob orphan = pendingJob("orphan", UploadJob.Status.QUEUED);
+        Files.delete(Path.of(orphan.getArchivePath()));
+        when(uploadJobRepository.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of(orphan));
+
+        service.resumePendingJobs();
+
+        assertThat(rows.get("orphan").getStatus()).isEqualTo(UploadJob.Status.FAILED);
+        assertThat(rows.get("orphan").getErrorMessage()).isEqualTo("Archive is no longer available");
+        verify(uploadJobRepository).save(orphan);
+    }
+
+    private UploadJobServiceImpl newService(int workers, int queueCapacity) {
+        return new UploadJobServiceImpl(uploadJobRepository, uploadService, mock(PlatformTransactionManager.class),
+                jobsRoot.toString(), workers, queueCapacity, Duration.ofMinutes(1));
+    }
+
+    private static MockMultipartFile archive() {
+        return new MockMultipartFile("file", "course.zip", "application/zip", new byte[]{80, 75, 5, 6});
+    }
+
+    private UploadJob pendingJob(String id, UploadJob.Status status) throws IOException {
+        UploadJob job = new UploadJob();
+        job.setId(id);
+        job.setStatus(status);
+        job.setTargetFolder("course");
+        job.setArchivePath(Files.write(jobsRoot.resolve(id + ".zip"), new byte[]{80, 75, 5, 6}).toString());
+        job.setCreatedAt(LocalDateTime.now());
+        rows.put(id, job);
+        return job;
+    }
+
+    private UploadJobDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            Optional<UploadJobDTO> job = service.getJob(id);
+            if (job.isPresent() && job.get().status().isFinished()) {
+                return job.get();
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Upload job " + id + " did not finish within " + TIMEOUT);
+    }
+}
@@ -0,0 +1,174 @@
+package com.tradinginfo.backend.service.upload.impl;
+
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.service.upload.UploadProgressListener;
+import com.tradinginfo.backend.service.upload.UploadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UploadServiceImplIngestTest {
+
+    private static final Long ADMIN_ID = 781182099L;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("upload.path", () -> tempDirectory("uploads"));
+        registry.add("app.images.watch-enabled", () -> "false");
+        registry.add("app.upload.write-batch-size", () -> "1");
+    }
+
+    @Autowired
+    private UploadService uploadService;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Test
+    void skipsLessonsWhoseContentDidNotChange() throws IOException {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("a.md", markdown("# Урок 1\nПервый урок"));
+        files.put("b.md", markdown("# Урок 2\nВторой урок"));
+
+        Map<String, Object> first = upload("skip", files, null);
+        assertThat(first).containsEntry("success", true).containsEntry("inserted", 2).containsEntry("skipped", 0);
+
+        files.put("b.md", markdown("# Урок 2\nВторой урок, дополненный"));
+        Map<String, Object> second = upload("skip", files, null);
+
+        assertThat(second)
+                .containsEntry("success", true)
+                .containsEntry("skipped", 1)
+                .containsEntry("updated", 1)
+                .containsEntry("inserted", 0);
+        assertThat(second.get("files")).isEqualTo(List.of("b.md"));
+    }
+
+    @Test
+    void reRendersOnlyLessonsEmbeddingAReplacedImage() throws IOException {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("chart.png", png(0x000000));
+        files.put("embeds.md", markdown("# Chart\n![](images/chart.png)"));
+        files.put("mentions.md", markdown("# Notes\nThe file chart.png is described elsewhere"));
+        upload("images", files, null);
+
+        assertThat(upload("images", files, null)).containsEntry("skipped", 2);
+
+        files.put("chart.png", png(0xFFFFFF));
+        Map<String, Object> replaced = upload("images", files, null);
+
+        assertThat(replaced).containsEntry("skipped", 1);
+        assertThat(replaced.get("files")).isEqualTo(List.of("embeds.md"));
+    }
+
+    @Test
+    void reportsMissingLessonsWithoutRemovingThemByDefault() throws IOException {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("keep.md", markdown("# Keep"));
+        files.put("gone.md", markdown("# Gone"));
+        upload("report", files, null);
+
+        files.remove("gone.md");
+        Map<String, Object> result = upload("report", files, null);
+
+        assertThat(result)
+                .containsEntry("removed", 0)
+                .containsEntry("removalCandidates", List.of("report/gone.md"));
+        assertThat(lessonRepository.findByPath("report/gone.md")).isPresent();
+    }
+
+    @Test
+    void removesMissingLessonsWhenRequested() throws IOException {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("keep.md", markdown("# Keep"));
+        files.put("gone.md", markdown("# Gone"));
+        upload("remove", files, null);
+
+        files.remove("gone.md");
+        Map<String, Object> result = upload("remove", files, true);
+
+        assertThat(result)
+                .containsEntry("removed", 1)
+                .containsEntry("removedLessons", List.of("remove/gone.md"));
+        assertThat(lessonRepository.findByPath("remove/gone.md")).isEmpty();
+        assertThat(lessonRepository.findByPath("remove/keep.md")).isPresent();
+    }
+
+    @Test
+    void keepsCommittingLaterBatchesAfterOneFails() throws IOException {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("broken.md", markdown("---\ntitle: " + "x".repeat(600) + "\n---\nToo long a title"));
+        files.put("fine.md", markdown("# Fine"));
+
+        Map<String, Object> result = upload("batches", files, null);
+
+        assertThat(result).containsEntry("success", true).containsEntry("inserted", 1);
+        assertThat(result.get("errors")).asList().singleElement().asString().startsWith("broken.md: ");
+        assertThat(lessonRepository.findByPath("batches/fine.md")).isPresent();
+        assertThat(lessonRepository.findByPath("batches/broken.md")).isEmpty();
+    }
+
+    private Map<String, Object> upload(String folder, Map<String, byte[]> files, Boolean removeMissing) throws IOException {
+        return uploadService.uploadLessons(new ByteArrayResource(zip(files)), folder, ADMIN_ID, removeMissing,
+                UploadProgressListener.NONE);
+    }
+
+    private static byte[] zip(Map<String, byte[]> files) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                zip.putNextEntry(new ZipEntry(file.getKey()));
+                zip.write(file.getValue());
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] markdown(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] png(int rgb) throws IOException {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, rgb);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    private static String tempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory(prefix).toString();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
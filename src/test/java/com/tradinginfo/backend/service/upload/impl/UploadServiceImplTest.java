@@ -0,0 +1,231 @@
+package com.tradinginfo.backend.service.upload.impl;
+
+import com.tradinginfo.backend.entity.Lesson;
+import com.tradinginfo.backend.repository.LessonHash;
+import com.tradinginfo.backend.repository.LessonRenditionRepository;
+import com.tradinginfo.backend.repository.LessonRepository;
+import com.tradinginfo.backend.repository.LessonSectionRepository;
+import com.tradinginfo.backend.repository.LessonUpsertOutcome;
+import com.tradinginfo.backend.service.image.ImageDerivativeService;
+import com.tradinginfo.backend.service.image.ImageIndexService;
+import com.tradinginfo.backend.service.image.ImageStoreService;
+import com.tradinginfo.backend.service.lesson.LessonCatalogService;
+import com.tradinginfo.backend.service.lesson.LessonContentCacheService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadServiceImplTest {
+
+    private static final Long ADMIN_ID = 781182099L;
+    private static final String CHART_LESSON = "# Chart\n![](images/chart.png)";
+    private static final String NOTES_LESSON = "# Notes\nThe file chart.png is described elsewhere";
+    private static final String RENDERED = "rendered-hash";
+
+    private final List<String> writtenPaths = new CopyOnWriteArrayList<>();
+    private LessonRepository lessonRepository;
+    private ImageStoreService imageStoreService;
+    private LessonContentCacheService lessonContentCacheService;
+    private ExecutorService renderExecutor;
+    private UploadServiceImpl uploadService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lessonRepository = mock(LessonRepository.class);
+        when(lessonRepository.upsertAll(anyList())).thenAnswer(invocation -> {
+            List<Lesson> lessons = invocation.getArgument(0);
+            if (lessons.stream().anyMatch(lesson -> lesson.getPath().endsWith("broken.md"))) {
+                throw new IllegalStateException("value too long for type character varying(500)");
+            }
+            lessons.forEach(lesson -> writtenPaths.add(lesson.getPath()));
+            return lessons.stream().map(lesson -> LessonUpsertOutcome.UPDATED).toList();
+        });
+        imageStoreService = mock(ImageStoreService.class);
+        when(imageStoreService.objectUrl(anyString())).thenAnswer(invocation -> "/api/image/objects/" + invocation.getArgument(0));
+        lessonContentCacheService = mock(LessonContentCacheService.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        renderExecutor = Executors.newFixedThreadPool(2);
+
+        uploadService = new UploadServiceImpl(lessonRepository, mock(LessonRenditionRepository.class),
+                mock(LessonSectionRepository.class), Optional.empty(), mock(LessonCatalogService.class),
+                lessonContentCacheService, Optional.empty(), mock(ImageIndexService.class),
+                mock(ImageDerivativeService.class), imageStoreService, renderExecutor, dataSource);
+        ReflectionTestUtils.setField(uploadService, "writeBatchSize", 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        renderExecutor.shutdownNow();
+    }
+
+    @Test
+    void skipsLessonsWhoseContentDidNotChange() throws IOException {
+        storedLessons(new LessonHash("course/a.md", sha256("# Урок 1"), RENDERED, List.of()),
+                new LessonHash("course/b.md", sha256("# Урок 2"), RENDERED, List.of()));
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("a.md", "# Урок 1");
+        files.put("b.md", "# Урок 2, дополненный");
+        files.put("c.md", "# Урок 3");
+
+        Map<String, Object> result = upload(files, null);
+
+        assertThat(result).containsEntry("success", true).containsEntry("skipped", 1);
+        assertThat(result.get("files")).isEqualTo(List.of("b.md", "c.md"));
+        assertThat(writtenPaths).containsExactly("course/b.md", "course/c.md");
+    }
+
+    @Test
+    void reRendersOnlyLessonsEmbeddingAReplacedImage() throws IOException {
+        when(imageStoreService.store(any(InputStream.class), eq("course"), eq("chart.png")))
+                .thenReturn(new ImageStoreService.StoredImage("abc", "abc.png", Path.of("abc.png"), false, true));
+        storedLessons(new LessonHash("course/embeds.md", sha256(CHART_LESSON), RENDERED, List.of("images/chart.png")),
+                new LessonHash("course/mentions.md", sha256(NOTES_LESSON), RENDERED, List.of()));
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("chart.png", "png");
+        files.put("embeds.md", CHART_LESSON);
+        files.put("mentions.md", NOTES_LESSON);
+
+        Map<String, Object> result = upload(files, null);
+
+        assertThat(result).containsEntry("skipped", 1);
+        assertThat(writtenPaths).containsExactly("course/embeds.md");
+    }
+
+    @Test
+    void reRendersLessonsStoredBeforeHashesAndImageReferencesWereKept() throws IOException {
+        storedLessons(new LessonHash("course/no-embeds.md", sha256(NOTES_LESSON), RENDERED, null),
+                new LessonHash("course/no-content-hash.md", sha256(NOTES_LESSON), null, List.of()));
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("no-embeds.md", NOTES_LESSON);
+        files.put("no-content-hash.md", NOTES_LESSON);
+
+        Map<String, Object> result = upload(files, null);
+
+        assertThat(result).containsEntry("skipped", 0);
+        assertThat(writtenPaths).containsExactly("course/no-embeds.md", "course/no-content-hash.md");
+    }
+
+    @Test
+    void reportsMissingLessonsWithoutRemovingThemByDefault() throws IOException {
+        storedLessons(new LessonHash("course/keep.md", sha256("# Keep"), RENDERED, List.of()),
+                new LessonHash("course/gone.md", sha256("# Gone"), RENDERED, List.of()));
+
+        Map<String, Object> result = upload(Map.of("keep.md", "# Keep"), null);
+
+        assertThat(result)
+                .containsEntry("removed", 0)
+                .containsEntry("removalCandidates", List.of("course/gone.md"));
+        verify(lessonRepository, never()).deleteByPath(anyString());
+    }
+
+    @Test
+    void removesMissingLessonsWhenRequested() throws IOException {
+        storedLessons(new LessonHash("course/keep.md", sha256("# Keep"), RENDERED, List.of()),
+                new LessonHash("course/gone.md", sha256("# Gone"), RENDERED, List.of()));
+
+        Map<String, Object> result = upload(Map.of("keep.md", "# Keep"), true);
+
+        assertThat(result)
+                .containsEntry("removed", 1)
+                .containsEntry("removedLessons", List.of("course/gone.md"));
+        verify(lessonRepository).deleteByPath("course/gone.md");
+        verify(lessonRepository, never()).deleteByPath("course/keep.md");
+    }
+
+    @Test
+    void retriesAFailedBatchLessonByLessonToReportOnlyTheBrokenOne() throws IOException {
+        storedLessons();
+        Map<String, String> files = new LinkedHashMap<>();
+        files.put("a.md", "# Урок 1");
+        files.put("broken.md", "# Сломанный урок");
+        files.put("c.md", "# Урок 3");
+
+        Map<String, Object> result = upload(files, null);
+
+        assertThat(result).containsEntry("success", true).containsEntry("updated", 2);
+        assertThat(result.get("files")).isEqualTo(List.of("a.md", "c.md"));
+        assertThat(result.get("errors")).isEqualTo(List.of("broken.md: value too long for type character varying(500)"));
+        assertThat(writtenPaths).containsExactly("course/a.md", "course/c.md");
+    }
+
+    @Test
+    void evictsCachedContentOnlyAfterTheUploadCommits() throws IOException {
+        storedLessons();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            upload(Map.of("a.md", "# Урок 1"), null);
+
+            verify(lessonContentCacheService, never()).evict(anyString());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(lessonContentCacheService).evict("course/a.md");
+    }
+
+    private void storedLessons(LessonHash... hashes) {
+        when(lessonRepository.findHashesByParentFolder("course")).thenReturn(List.of(hashes));
+    }
+
+    private Map<String, Object> upload(Map<String, String> files, Boolean removeMissing) throws IOException {
+        return uploadService.uploadLessons(new MockMultipartFile("file", "course.zip", "application/zip", zip(files)),
+                "course", ADMIN_ID, removeMissing);
+    }
+
+    private static byte[] zip(Map<String, String> files) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, String> file : files.entrySet()) {
+                zip.putNextEntry(new ZipEntry(file.getKey()));
+                zip.write(file.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}